@@ -0,0 +1,97 @@
+package matchless.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import matchless.domain.Material;
+import matchless.domain.MaterialMethod;
+import matchless.domain.enumeration.MethodType;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Compares the JSON, Smile and CBOR wire formats on a page of material methods, as returned by
+ * {@code GET /api/material-methods}.
+ * <p>
+ * Run with {@code ./gradlew jmh -PjmhIncludes=WireFormatBenchmark}. The size of the page in each format is reported
+ * as the {@code payloadBytes} secondary result; the {@code gc.alloc.rate.norm} lines give the bytes allocated per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<MaterialMethod>> PAGE = new TypeReference<>() {};
+
+    @Param({ "json", "smile", "cbor" })
+    private String format;
+
+    @Param({ "20", "1000" })
+    private int pageSize;
+
+    private ObjectMapper mapper;
+
+    private List<MaterialMethod> page;
+
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws IOException {
+        JsonFactory factory =
+            switch (format) {
+                case "smile" -> new SmileFactory();
+                case "cbor" -> new CBORFactory();
+                default -> new JsonFactory();
+            };
+        mapper = Jackson2ObjectMapperBuilder.json().factory(factory).build();
+
+        page = new ArrayList<>(pageSize);
+        MethodType[] types = MethodType.values();
+        for (long id = 1; id <= pageSize; id++) {
+            Material material = new Material().id(id).name("Material " + id).description("Description of material " + id).methods(null);
+            page.add(new MaterialMethod().id(id).type(types[(int) (id % types.length)]).name(material));
+        }
+
+        payload = mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serialize(PayloadSize payloadSize) throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public List<MaterialMethod> deserialize(PayloadSize payloadSize) throws IOException {
+        return mapper.readValue(payload, PAGE);
+    }
+
+    /**
+     * Reports the size of the page in the benchmarked format, as a secondary result of each benchmark.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+
+        public long payloadBytes;
+
+        @Setup(Level.Iteration)
+        public void setup(WireFormatBenchmark benchmark) {
+            payloadBytes = benchmark.payload.length;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package matchless.security;
+
+import static matchless.security.SecurityUtils.AUTHORITIES_KEY;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+/**
+ * Compares {@link InternedAuthoritiesConverter} with the {@link JwtGrantedAuthoritiesConverter} it replaces.
+ * <p>
+ * Run with {@code ./gradlew jmh -PjmhIncludes=AuthoritiesConverterBenchmark}; the {@code gc.alloc.rate.norm} lines
+ * give the bytes allocated per conversion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuthoritiesConverterBenchmark {
+
+    private Jwt jwt;
+
+    private JwtGrantedAuthoritiesConverter parsingConverter;
+
+    private InternedAuthoritiesConverter internedConverter;
+
+    @Setup
+    public void setup() {
+        jwt =
+            Jwt
+                .withTokenValue("token")
+                .header("alg", "HS512")
+                .subject("admin")
+                .issuedAt(Instant.now())
+                .claim(AUTHORITIES_KEY, "ROLE_ADMIN ROLE_USER")
+                .build();
+
+        parsingConverter = new JwtGrantedAuthoritiesConverter();
+        parsingConverter.setAuthorityPrefix("");
+        parsingConverter.setAuthoritiesClaimName(AUTHORITIES_KEY);
+
+        internedConverter = new InternedAuthoritiesConverter(AUTHORITIES_KEY, 1_000);
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> parsing() {
+        return parsingConverter.convert(jwt);
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> interned() {
+        return internedConverter.convert(jwt);
+    }
+}
@@ -0,0 +1,46 @@
+package matchless.web.filter;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the routing of {@link SpaWebFilter} with the string and regular expression checks it replaces.
+ * <p>
+ * Run with {@code ./gradlew jmh -PjmhIncludes=SpaWebFilterBenchmark}; the {@code gc.alloc.rate.norm} lines give the
+ * bytes allocated per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpaWebFilterBenchmark {
+
+    private static final String CONTEXT_PATH = "";
+
+    @Param({ "/api/material-methods/1201", "/management/health", "/material/1201/edit", "/main.3f2a9c6d1b8e7a40.js" })
+    private String uri;
+
+    @Benchmark
+    public boolean trie() {
+        return SpaWebFilter.isClientRoute(uri, CONTEXT_PATH.length());
+    }
+
+    @Benchmark
+    public boolean legacy() {
+        String path = uri.substring(CONTEXT_PATH.length());
+        return (
+            !path.startsWith("/api") &&
+            !path.startsWith("/management") &&
+            !path.startsWith("/v3/api-docs") &&
+            !path.startsWith("/h2-console") &&
+            !path.startsWith("/websocket") &&
+            !path.contains(".") &&
+            path.matches("/(.*)")
+        );
+    }
+}
@@ -0,0 +1,205 @@
+package matchless.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A bounded store of byte arrays kept outside of the Java heap.
+ * <p>
+ * Values are appended to fixed-size direct {@link ByteBuffer} slabs, and only their locations are kept on the heap.
+ * When every slab is full the oldest one is recycled, dropping the values it holds, so the store behaves as a FIFO of
+ * at most {@code maxBytes}. Removed or replaced values are not compacted: their space is reclaimed when their slab is
+ * recycled.
+ *
+ * @param <K> the key type.
+ */
+public final class OffHeapStore<K> {
+
+    private final ByteBuffer[] slabs;
+
+    private final int slabSize;
+
+    private final Map<K, Location> index = new ConcurrentHashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int currentSlab;
+
+    private int writePosition;
+
+    private long usedBytes;
+
+    /**
+     * @param maxBytes the off-heap memory to use, rounded up to whole slabs.
+     * @param slabSize the size of each slab, which bounds the size of a value.
+     */
+    public OffHeapStore(long maxBytes, int slabSize) {
+        if (slabSize <= 0 || maxBytes < slabSize) {
+            throw new IllegalArgumentException("maxBytes must hold at least one slab of a positive size");
+        }
+        int slabCount = (int) Math.min(Integer.MAX_VALUE, (maxBytes + slabSize - 1) / slabSize);
+        this.slabs = new ByteBuffer[slabCount];
+        this.slabSize = slabSize;
+    }
+
+    /**
+     * Store a value, replacing any previous value of the key.
+     *
+     * @param key the key.
+     * @param value the bytes to store.
+     * @return {@code false} if the value is larger than a slab and was not stored.
+     */
+    public boolean put(K key, byte[] value) {
+        if (value.length > slabSize) {
+            remove(key);
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            if (writePosition + value.length > slabSize || slabs[currentSlab] == null) {
+                nextSlab();
+            }
+            ByteBuffer slab = slabs[currentSlab];
+            slab.put(writePosition, value);
+            Location previous = index.put(key, new Location(currentSlab, writePosition, value.length));
+            if (previous != null) {
+                usedBytes -= previous.length();
+            }
+            writePosition += value.length;
+            usedBytes += value.length;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void nextSlab() {
+        if (slabs[currentSlab] != null) {
+            currentSlab = (currentSlab + 1) % slabs.length;
+        }
+        if (slabs[currentSlab] == null) {
+            slabs[currentSlab] = ByteBuffer.allocateDirect(slabSize);
+        } else {
+            int recycled = currentSlab;
+            index
+                .values()
+                .removeIf(location -> {
+                    if (location.slab() != recycled) {
+                        return false;
+                    }
+                    usedBytes -= location.length();
+                    return true;
+                });
+        }
+        writePosition = 0;
+    }
+
+    /**
+     * @param key the key.
+     * @return a copy of the stored bytes, or {@code null} if the key is absent.
+     */
+    public byte[] get(K key) {
+        lock.readLock().lock();
+        try {
+            Location location = index.get(key);
+            return location != null ? read(location) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a value and return it, so that it can be promoted to a faster tier.
+     *
+     * @param key the key.
+     * @return the stored bytes, or {@code null} if the key is absent.
+     */
+    public byte[] take(K key) {
+        lock.writeLock().lock();
+        try {
+            Location location = index.remove(key);
+            if (location == null) {
+                return null;
+            }
+            usedBytes -= location.length();
+            return read(location);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private byte[] read(Location location) {
+        byte[] value = new byte[location.length()];
+        slabs[location.slab()].get(location.offset(), value);
+        return value;
+    }
+
+    public boolean contains(K key) {
+        return index.containsKey(key);
+    }
+
+    public void remove(K key) {
+        lock.writeLock().lock();
+        try {
+            Location location = index.remove(key);
+            if (location != null) {
+                usedBytes -= location.length();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove every value. Slabs already allocated are kept for reuse.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            usedBytes = 0;
+            writePosition = slabSize;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * @return the bytes of the values currently stored, not counting the space of removed values not yet recycled.
+     */
+    public long usedBytes() {
+        lock.readLock().lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the off-heap memory allocated so far.
+     */
+    public long allocatedBytes() {
+        lock.readLock().lock();
+        try {
+            long allocated = 0;
+            for (ByteBuffer slab : slabs) {
+                if (slab != null) {
+                    allocated += slab.capacity();
+                }
+            }
+            return allocated;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record Location(int slab, int offset, int length) {}
+}
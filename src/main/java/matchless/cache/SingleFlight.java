@@ -0,0 +1,117 @@
+package matchless.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the loader while the others wait for its result.
+ * <p>
+ * Meant to sit behind a cache, so that a miss on a hot key (after expiry or eviction) costs one query instead of one
+ * per concurrent request. Nothing is retained once a load completes.
+ * <p>
+ * Loads inside a read-write transaction are never shared, as their result may include uncommitted writes of that
+ * transaction; callers should load outside of a transaction, or inside a read-only one.
+ * <p>
+ * Values that are not immutable, such as JPA entities, are never shared either: the value loaded is only returned to
+ * the caller that ran the loader, in whose persistence context it may be managed. The copier given at construction
+ * takes a detached copy of it, on that caller's thread, and each waiting caller gets its own copy of that one.
+ *
+ * @param <K> the key type.
+ * @param <V> the value type.
+ */
+public final class SingleFlight<K, V> {
+
+    public static final String LOADS_METER_NAME = "cache.single-flight.loads";
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final UnaryOperator<V> copier;
+
+    private final Counter loadedCounter;
+
+    private final Counter coalescedCounter;
+
+    /**
+     * Create a single flight for immutable values, shared as they are by the callers waiting for a load.
+     *
+     * @param name the name of the guarded cache, used as the {@code cache} tag of the meters.
+     * @param registry the registry of the load counters.
+     */
+    public SingleFlight(String name, MeterRegistry registry) {
+        this(name, registry, UnaryOperator.identity());
+    }
+
+    /**
+     * @param name the name of the guarded cache, used as the {@code cache} tag of the meters.
+     * @param registry the registry of the load counters.
+     * @param copier returns a copy of a value, detached from any persistence context, for each caller of a shared load.
+     */
+    public SingleFlight(String name, MeterRegistry registry, UnaryOperator<V> copier) {
+        this.copier = copier;
+        this.loadedCounter = loadsCounterBuilder(name, "loaded").register(registry);
+        this.coalescedCounter = loadsCounterBuilder(name, "coalesced").register(registry);
+    }
+
+    private static Counter.Builder loadsCounterBuilder(String name, String result) {
+        return Counter
+            .builder(LOADS_METER_NAME)
+            .description("Cache loads that ran the loader, or that waited for a concurrent load of the same key.")
+            .tag("cache", name)
+            .tag("result", result);
+    }
+
+    /**
+     * Load the value of a key, or wait for the load already in flight for it.
+     *
+     * @param key the key to load.
+     * @param loader the loader, only run if no load of the key is in flight.
+     * @return the loaded value, or a copy of it if loaded by a concurrent caller.
+     */
+    public V load(K key, Supplier<V> loader) {
+        if (
+            TransactionSynchronizationManager.isActualTransactionActive() &&
+            !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+        ) {
+            return loader.get();
+        }
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> concurrentLoad = inFlight.putIfAbsent(key, load);
+        if (concurrentLoad != null) {
+            coalescedCounter.increment();
+            return copier.apply(join(concurrentLoad));
+        }
+        loadedCounter.increment();
+        try {
+            V value = loader.get();
+            // Copied before completing, so that no other thread reads the value while this caller uses it
+            load.complete(copier.apply(value));
+            return value;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
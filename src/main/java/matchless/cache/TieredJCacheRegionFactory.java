@@ -0,0 +1,66 @@
+package matchless.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Set;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+
+/**
+ * A JCache region factory that backs selected entity regions with an off-heap tier, see {@link TieredStorageAccess}.
+ * <p>
+ * The other regions are created as by the standard JCache region factory.
+ */
+public class TieredJCacheRegionFactory extends JCacheRegionFactory {
+
+    public static final String OFF_HEAP_ENTRIES_METER_NAME = "cache.off-heap.entries";
+
+    public static final String OFF_HEAP_BYTES_METER_NAME = "cache.off-heap.bytes";
+
+    private final Set<String> tieredRegions;
+
+    private final long maxBytesPerRegion;
+
+    private final int slabSize;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param tieredRegions the names of the regions to back with an off-heap tier.
+     * @param maxBytesPerRegion the off-heap memory of each tiered region.
+     * @param slabSize the size of the off-heap slabs, see {@link OffHeapStore}.
+     * @param meterRegistry the registry of the off-heap gauges.
+     */
+    public TieredJCacheRegionFactory(Set<String> tieredRegions, long maxBytesPerRegion, int slabSize, MeterRegistry meterRegistry) {
+        this.tieredRegions = Set.copyOf(tieredRegions);
+        this.maxBytesPerRegion = maxBytesPerRegion;
+        this.slabSize = slabSize;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(
+        DomainDataRegionConfig regionConfig,
+        DomainDataRegionBuildingContext buildingContext
+    ) {
+        String regionName = regionConfig.getRegionName();
+        if (!tieredRegions.contains(regionName)) {
+            return super.createDomainDataStorageAccess(regionConfig, buildingContext);
+        }
+        OffHeapStore<Object> offHeapStore = new OffHeapStore<>(maxBytesPerRegion, slabSize);
+        Gauge
+            .builder(OFF_HEAP_ENTRIES_METER_NAME, offHeapStore, OffHeapStore::size)
+            .description("Entries of the off-heap tier of a second-level cache region")
+            .tag("cache", regionName)
+            .register(meterRegistry);
+        Gauge
+            .builder(OFF_HEAP_BYTES_METER_NAME, offHeapStore, OffHeapStore::usedBytes)
+            .description("Bytes used by the entries of the off-heap tier of a second-level cache region")
+            .tag("cache", regionName)
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        return new TieredStorageAccess(getOrCreateCache(regionName, buildingContext.getSessionFactory()), offHeapStore);
+    }
+}
@@ -0,0 +1,229 @@
+package matchless.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.cache.Cache;
+import javax.cache.configuration.CacheEntryListenerConfiguration;
+import javax.cache.configuration.MutableCacheEntryListenerConfiguration;
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryExpiredListener;
+import javax.cache.event.CacheEntryRemovedListener;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Storage of a second-level cache region in two tiers: the JCache cache on the heap, backed by an
+ * {@link OffHeapStore} that keeps the entries the heap tier evicts.
+ * <p>
+ * Entries are spilled by a listener of the heap tier's removals, and promoted back to the heap tier on the first miss
+ * that finds them off heap. Writes and removals drop the off-heap copy, and promotions only add an entry if the heap
+ * tier does not hold a newer one.
+ * <p>
+ * The removals of size evictions are reported asynchronously by Caffeine, so the spill of an old value can arrive
+ * after a newer write or a removal of its key. Every value is therefore stored with the version of its write, so that
+ * the off-heap tier never shadows a later write:
+ * <ul>
+ * <li>a spill is dropped if the heap tier holds the key again, and keeps the off-heap copy if that one is newer;</li>
+ * <li>the version of a removal is remembered per key for {@link #VERSION_RETENTION}, and spills and off-heap reads of
+ * an older version are dropped.</li>
+ * </ul>
+ * Only removals are remembered: puts, most of which populate the cache from reads, add no bookkeeping to the heap.
+ */
+public class TieredStorageAccess implements DomainDataStorageAccess {
+
+    /**
+     * How long the version of a removal is remembered, far longer than a removal event can be delayed.
+     */
+    static final Duration VERSION_RETENTION = Duration.ofMinutes(1);
+
+    private static final Logger LOG = LoggerFactory.getLogger(TieredStorageAccess.class);
+
+    private final Cache<Object, Object> cache;
+
+    private final OffHeapStore<Object> offHeapStore;
+
+    private final CacheEntryListenerConfiguration<Object, Object> spillListenerConfiguration;
+
+    private final AtomicLong versions = new AtomicLong();
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Long> removedVersions = Caffeine
+        .newBuilder()
+        .expireAfterWrite(VERSION_RETENTION)
+        .build();
+
+    /**
+     * Versions up to this one were written before the last {@link #evictData()}.
+     */
+    private volatile long clearedVersion = -1;
+
+    public TieredStorageAccess(Cache<Object, Object> cache, OffHeapStore<Object> offHeapStore) {
+        this.cache = cache;
+        this.offHeapStore = offHeapStore;
+        SpillListener spillListener = new SpillListener();
+        this.spillListenerConfiguration = new MutableCacheEntryListenerConfiguration<>(() -> spillListener, null, true, true);
+        cache.registerCacheEntryListener(spillListenerConfiguration);
+    }
+
+    public OffHeapStore<Object> getOffHeapStore() {
+        return offHeapStore;
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        Object stored = cache.get(key);
+        if (stored != null) {
+            return valueOf(stored);
+        }
+        byte[] bytes = offHeapStore.take(key);
+        if (bytes == null) {
+            return null;
+        }
+        if (!(deserialize(bytes) instanceof Versioned versioned) || isStale(key, versioned.version())) {
+            return null;
+        }
+        if (!cache.putIfAbsent(key, versioned)) {
+            return valueOf(cache.get(key));
+        }
+        if (isStale(key, versioned.version())) {
+            // Written or removed while being promoted
+            cache.remove(key, versioned);
+            return null;
+        }
+        return versioned.value();
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        long version = versions.incrementAndGet();
+        offHeapStore.remove(key);
+        cache.put(key, new Versioned(version, value));
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return cache.containsKey(key) || offHeapStore.contains(key);
+    }
+
+    @Override
+    public void removeFromCache(Object key, SharedSessionContractImplementor session) {
+        evictData(key);
+    }
+
+    @Override
+    public void clearCache(SharedSessionContractImplementor session) {
+        evictData();
+    }
+
+    @Override
+    public void evictData() {
+        clearedVersion = versions.incrementAndGet();
+        cache.clear();
+        offHeapStore.clear();
+    }
+
+    @Override
+    public void evictData(Object key) {
+        // A spill of the removed value is dropped as stale, as would be one arriving after the removal.
+        removedVersions.asMap().merge(key, versions.incrementAndGet(), Math::max);
+        cache.remove(key);
+        offHeapStore.remove(key);
+    }
+
+    @Override
+    public void release() {
+        cache.deregisterCacheEntryListener(spillListenerConfiguration);
+        offHeapStore.clear();
+    }
+
+    /**
+     * @return the number of keys whose removal is remembered.
+     */
+    long rememberedRemovals() {
+        removedVersions.cleanUp();
+        return removedVersions.estimatedSize();
+    }
+
+    private boolean isStale(Object key, long version) {
+        if (version <= clearedVersion) {
+            return true;
+        }
+        Long removedVersion = removedVersions.getIfPresent(key);
+        return removedVersion != null && version < removedVersion;
+    }
+
+    private static Object valueOf(Object stored) {
+        return stored instanceof Versioned versioned ? versioned.value() : stored;
+    }
+
+    private void spill(Object key, Object value) {
+        // Dropped if the heap tier holds the key again, written or promoted since
+        if (!(value instanceof Versioned versioned) || isStale(key, versioned.version()) || cache.containsKey(key)) {
+            return;
+        }
+        // Only held off heap if the spill of a newer value arrived first
+        byte[] spilled = offHeapStore.take(key);
+        boolean newerSpilled = spilled != null && deserialize(spilled) instanceof Versioned newer && newer.version() > versioned.version();
+        byte[] bytes = newerSpilled ? spilled : serialize(value);
+        if (bytes == null || !offHeapStore.put(key, bytes)) {
+            offHeapStore.remove(key);
+        }
+    }
+
+    private byte[] serialize(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            LOG.debug("Not spilling an entry of cache {} off heap: {}", cache.getName(), e.toString());
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    private Object deserialize(byte[] bytes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            LOG.warn("Dropping an unreadable off-heap entry of cache {}: {}", cache.getName(), e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Receives the entries removed from the heap tier: size evictions and explicit removals are reported as removals,
+     * and spilled; expired entries are dropped from both tiers.
+     */
+    private final class SpillListener implements CacheEntryRemovedListener<Object, Object>, CacheEntryExpiredListener<Object, Object> {
+
+        @Override
+        public void onRemoved(Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+            for (CacheEntryEvent<?, ?> event : events) {
+                Object value = event.getOldValue() != null ? event.getOldValue() : event.getValue();
+                if (value != null) {
+                    spill(event.getKey(), value);
+                }
+            }
+        }
+
+        @Override
+        public void onExpired(Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+            for (CacheEntryEvent<?, ?> event : events) {
+                offHeapStore.remove(event.getKey());
+            }
+        }
+    }
+
+    /**
+     * A value with the version of its write.
+     */
+    private record Versioned(long version, Object value) implements Serializable {}
+}
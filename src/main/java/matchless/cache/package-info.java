@@ -0,0 +1,4 @@
+/**
+ * Caching primitives shared across layers.
+ */
+package matchless.cache;
@@ -1,5 +1,7 @@
 package matchless.config;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -10,7 +12,806 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final UserLookup userLookup = new UserLookup();
+
+    private final ResponseCache responseCache = new ResponseCache();
+
+    private final OffHeapCache offHeapCache = new OffHeapCache();
+
+    private final Catalog catalog = new Catalog();
+
+    private final JwtCache jwtCache = new JwtCache();
+
+    private final PasswordHashing passwordHashing = new PasswordHashing();
+
+    private final RefreshToken refreshToken = new RefreshToken();
+
+    private final LoginThrottle loginThrottle = new LoginThrottle();
+
+    private final TokenRevocation tokenRevocation = new TokenRevocation();
+
+    private final VirtualThreads virtualThreads = new VirtualThreads();
+
+    private final ChangeFeed changeFeed = new ChangeFeed();
+
+    private final ChangeLog changeLog = new ChangeLog();
+
+    private final Tracker tracker = new Tracker();
+
+    private final StompBroker stompBroker = new StompBroker();
+
+    private final MvcAsync mvcAsync = new MvcAsync();
+
     // jhipster-needle-application-properties-property
+
+    public UserLookup getUserLookup() {
+        return userLookup;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    public OffHeapCache getOffHeapCache() {
+        return offHeapCache;
+    }
+
+    public Catalog getCatalog() {
+        return catalog;
+    }
+
+    public JwtCache getJwtCache() {
+        return jwtCache;
+    }
+
+    public PasswordHashing getPasswordHashing() {
+        return passwordHashing;
+    }
+
+    public RefreshToken getRefreshToken() {
+        return refreshToken;
+    }
+
+    public LoginThrottle getLoginThrottle() {
+        return loginThrottle;
+    }
+
+    public TokenRevocation getTokenRevocation() {
+        return tokenRevocation;
+    }
+
+    public VirtualThreads getVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public ChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+
+    public ChangeLog getChangeLog() {
+        return changeLog;
+    }
+
+    public Tracker getTracker() {
+        return tracker;
+    }
+
+    public StompBroker getStompBroker() {
+        return stompBroker;
+    }
+
+    public MvcAsync getMvcAsync() {
+        return mvcAsync;
+    }
+
     // jhipster-needle-application-properties-property-getter
+
+    /**
+     * Negative caching of unknown logins and emails, see {@link matchless.security.UserLookupGuard}.
+     */
+    public static class UserLookup {
+
+        private boolean enabled = true;
+
+        private long negativeTimeToLiveSeconds = 60;
+
+        private long negativeMaxEntries = 10_000;
+
+        private long expectedUsers = 100_000;
+
+        private double falsePositiveProbability = 0.01;
+
+        private long initialBuildDelaySeconds = 30;
+
+        private long rebuildIntervalSeconds = 600;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getNegativeTimeToLiveSeconds() {
+            return negativeTimeToLiveSeconds;
+        }
+
+        public void setNegativeTimeToLiveSeconds(long negativeTimeToLiveSeconds) {
+            this.negativeTimeToLiveSeconds = negativeTimeToLiveSeconds;
+        }
+
+        public long getNegativeMaxEntries() {
+            return negativeMaxEntries;
+        }
+
+        public void setNegativeMaxEntries(long negativeMaxEntries) {
+            this.negativeMaxEntries = negativeMaxEntries;
+        }
+
+        public long getExpectedUsers() {
+            return expectedUsers;
+        }
+
+        public void setExpectedUsers(long expectedUsers) {
+            this.expectedUsers = expectedUsers;
+        }
+
+        public double getFalsePositiveProbability() {
+            return falsePositiveProbability;
+        }
+
+        public void setFalsePositiveProbability(double falsePositiveProbability) {
+            this.falsePositiveProbability = falsePositiveProbability;
+        }
+
+        public long getInitialBuildDelaySeconds() {
+            return initialBuildDelaySeconds;
+        }
+
+        public void setInitialBuildDelaySeconds(long initialBuildDelaySeconds) {
+            this.initialBuildDelaySeconds = initialBuildDelaySeconds;
+        }
+
+        public long getRebuildIntervalSeconds() {
+            return rebuildIntervalSeconds;
+        }
+
+        public void setRebuildIntervalSeconds(long rebuildIntervalSeconds) {
+            this.rebuildIntervalSeconds = rebuildIntervalSeconds;
+        }
+    }
+
+    /**
+     * Cache of serialized entity GET responses, see {@link matchless.web.filter.ResponseCacheFilter}.
+     */
+    public static class ResponseCache {
+
+        private boolean enabled = true;
+
+        private long maxEntries = 10_000;
+
+        private long timeToLiveSeconds = 3600;
+
+        private int maxPages = 3;
+
+        private boolean gzip = false;
+
+        private boolean coalescing = true;
+
+        private long coalescingTimeoutMillis = 5_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public int getMaxPages() {
+            return maxPages;
+        }
+
+        public void setMaxPages(int maxPages) {
+            this.maxPages = maxPages;
+        }
+
+        public boolean isGzip() {
+            return gzip;
+        }
+
+        public void setGzip(boolean gzip) {
+            this.gzip = gzip;
+        }
+
+        public boolean isCoalescing() {
+            return coalescing;
+        }
+
+        public void setCoalescing(boolean coalescing) {
+            this.coalescing = coalescing;
+        }
+
+        public long getCoalescingTimeoutMillis() {
+            return coalescingTimeoutMillis;
+        }
+
+        public void setCoalescingTimeoutMillis(long coalescingTimeoutMillis) {
+            this.coalescingTimeoutMillis = coalescingTimeoutMillis;
+        }
+    }
+
+    /**
+     * Off-heap tier of second-level cache regions, see {@link matchless.cache.TieredStorageAccess}.
+     */
+    public static class OffHeapCache {
+
+        private boolean enabled = false;
+
+        private List<String> regions = new ArrayList<>(
+            List.of(matchless.domain.Material.class.getName(), matchless.domain.MaterialMethod.class.getName())
+        );
+
+        private long maxMegabytesPerRegion = 256;
+
+        private int slabMegabytes = 16;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getRegions() {
+            return regions;
+        }
+
+        public void setRegions(List<String> regions) {
+            this.regions = regions;
+        }
+
+        public long getMaxMegabytesPerRegion() {
+            return maxMegabytesPerRegion;
+        }
+
+        public void setMaxMegabytesPerRegion(long maxMegabytesPerRegion) {
+            this.maxMegabytesPerRegion = maxMegabytesPerRegion;
+        }
+
+        public int getSlabMegabytes() {
+            return slabMegabytes;
+        }
+
+        public void setSlabMegabytes(int slabMegabytes) {
+            this.slabMegabytes = slabMegabytes;
+        }
+    }
+
+    /**
+     * In-memory snapshot of the materials and their methods, see {@link matchless.service.MaterialCatalog}.
+     */
+    public static class Catalog {
+
+        private boolean enabled = true;
+
+        private long initialLoadDelaySeconds = 30;
+
+        private long refreshIntervalSeconds = 600;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getInitialLoadDelaySeconds() {
+            return initialLoadDelaySeconds;
+        }
+
+        public void setInitialLoadDelaySeconds(long initialLoadDelaySeconds) {
+            this.initialLoadDelaySeconds = initialLoadDelaySeconds;
+        }
+
+        public long getRefreshIntervalSeconds() {
+            return refreshIntervalSeconds;
+        }
+
+        public void setRefreshIntervalSeconds(long refreshIntervalSeconds) {
+            this.refreshIntervalSeconds = refreshIntervalSeconds;
+        }
+    }
+
+    /**
+     * Cache of verified JWTs, see {@link matchless.security.CachingJwtDecoder}.
+     */
+    public static class JwtCache {
+
+        private boolean enabled = true;
+
+        private long maxEntries = 10_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    /**
+     * Bounded pool running password hashing, see {@link matchless.security.BulkheadPasswordEncoder}.
+     */
+    public static class PasswordHashing {
+
+        private int threads = 0;
+
+        private int queueCapacity = 32;
+
+        private long retryAfterSeconds = 1;
+
+        private int strength = 0;
+
+        private long targetMillis = 100;
+
+        private int minStrength = 10;
+
+        private int maxStrength = 14;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+
+        public void setRetryAfterSeconds(long retryAfterSeconds) {
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public int getStrength() {
+            return strength;
+        }
+
+        public void setStrength(int strength) {
+            this.strength = strength;
+        }
+
+        public long getTargetMillis() {
+            return targetMillis;
+        }
+
+        public void setTargetMillis(long targetMillis) {
+            this.targetMillis = targetMillis;
+        }
+
+        public int getMinStrength() {
+            return minStrength;
+        }
+
+        public void setMinStrength(int minStrength) {
+            this.minStrength = minStrength;
+        }
+
+        public int getMaxStrength() {
+            return maxStrength;
+        }
+
+        public void setMaxStrength(int maxStrength) {
+            this.maxStrength = maxStrength;
+        }
+    }
+
+    /**
+     * Short-lived access tokens renewed with rotating refresh tokens, see {@link matchless.service.RefreshTokenService}.
+     */
+    public static class RefreshToken {
+
+        private boolean enabled = false;
+
+        private long accessTokenValidityInSeconds = 900;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getAccessTokenValidityInSeconds() {
+            return accessTokenValidityInSeconds;
+        }
+
+        public void setAccessTokenValidityInSeconds(long accessTokenValidityInSeconds) {
+            this.accessTokenValidityInSeconds = accessTokenValidityInSeconds;
+        }
+    }
+
+    /**
+     * Limits of login attempts per login and per remote address, see {@link matchless.security.LoginThrottle}.
+     */
+    public static class LoginThrottle {
+
+        private boolean enabled = true;
+
+        private int maxAttemptsPerLogin = 10;
+
+        private int maxAttemptsPerAddress = 100;
+
+        private long windowSeconds = 60;
+
+        private long maxKeys = 100_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxAttemptsPerLogin() {
+            return maxAttemptsPerLogin;
+        }
+
+        public void setMaxAttemptsPerLogin(int maxAttemptsPerLogin) {
+            this.maxAttemptsPerLogin = maxAttemptsPerLogin;
+        }
+
+        public int getMaxAttemptsPerAddress() {
+            return maxAttemptsPerAddress;
+        }
+
+        public void setMaxAttemptsPerAddress(int maxAttemptsPerAddress) {
+            this.maxAttemptsPerAddress = maxAttemptsPerAddress;
+        }
+
+        public long getWindowSeconds() {
+            return windowSeconds;
+        }
+
+        public void setWindowSeconds(long windowSeconds) {
+            this.windowSeconds = windowSeconds;
+        }
+
+        public long getMaxKeys() {
+            return maxKeys;
+        }
+
+        public void setMaxKeys(long maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+    }
+
+    /**
+     * In-memory list of revoked JWTs, see {@link matchless.security.TokenRevocationList}.
+     */
+    public static class TokenRevocation {
+
+        private long bucketMinutes = 60;
+
+        private long expectedRevocationsPerBucket = 10_000;
+
+        private double falsePositiveProbability = 0.01;
+
+        private long synchronizeIntervalSeconds = 30;
+
+        public long getBucketMinutes() {
+            return bucketMinutes;
+        }
+
+        public void setBucketMinutes(long bucketMinutes) {
+            this.bucketMinutes = bucketMinutes;
+        }
+
+        public long getExpectedRevocationsPerBucket() {
+            return expectedRevocationsPerBucket;
+        }
+
+        public void setExpectedRevocationsPerBucket(long expectedRevocationsPerBucket) {
+            this.expectedRevocationsPerBucket = expectedRevocationsPerBucket;
+        }
+
+        public double getFalsePositiveProbability() {
+            return falsePositiveProbability;
+        }
+
+        public void setFalsePositiveProbability(double falsePositiveProbability) {
+            this.falsePositiveProbability = falsePositiveProbability;
+        }
+
+        public long getSynchronizeIntervalSeconds() {
+            return synchronizeIntervalSeconds;
+        }
+
+        public void setSynchronizeIntervalSeconds(long synchronizeIntervalSeconds) {
+            this.synchronizeIntervalSeconds = synchronizeIntervalSeconds;
+        }
+    }
+
+    /**
+     * Settings used when running on virtual threads, see {@link VirtualThreadsConfiguration}.
+     */
+    public static class VirtualThreads {
+
+        private long pinnedThresholdMillis = 20;
+
+        private int stompChannelConcurrency = 256;
+
+        public long getPinnedThresholdMillis() {
+            return pinnedThresholdMillis;
+        }
+
+        public void setPinnedThresholdMillis(long pinnedThresholdMillis) {
+            this.pinnedThresholdMillis = pinnedThresholdMillis;
+        }
+
+        public int getStompChannelConcurrency() {
+            return stompChannelConcurrency;
+        }
+
+        public void setStompChannelConcurrency(int stompChannelConcurrency) {
+            this.stompChannelConcurrency = stompChannelConcurrency;
+        }
+    }
+
+    /**
+     * Server-sent feed of material changes, see {@link matchless.service.MaterialChangeFeed}.
+     */
+    public static class ChangeFeed {
+
+        private long coalesceMillis = 250;
+
+        private int historySize = 10_000;
+
+        private int subscriberBufferSize = 256;
+
+        private long heartbeatSeconds = 15;
+
+        private long timeoutSeconds = 1800;
+
+        private int deliveryThreads = 32;
+
+        public long getCoalesceMillis() {
+            return coalesceMillis;
+        }
+
+        public void setCoalesceMillis(long coalesceMillis) {
+            this.coalesceMillis = coalesceMillis;
+        }
+
+        public int getHistorySize() {
+            return historySize;
+        }
+
+        public void setHistorySize(int historySize) {
+            this.historySize = historySize;
+        }
+
+        public int getSubscriberBufferSize() {
+            return subscriberBufferSize;
+        }
+
+        public void setSubscriberBufferSize(int subscriberBufferSize) {
+            this.subscriberBufferSize = subscriberBufferSize;
+        }
+
+        public long getHeartbeatSeconds() {
+            return heartbeatSeconds;
+        }
+
+        public void setHeartbeatSeconds(long heartbeatSeconds) {
+            this.heartbeatSeconds = heartbeatSeconds;
+        }
+
+        public long getTimeoutSeconds() {
+            return timeoutSeconds;
+        }
+
+        public void setTimeoutSeconds(long timeoutSeconds) {
+            this.timeoutSeconds = timeoutSeconds;
+        }
+
+        public int getDeliveryThreads() {
+            return deliveryThreads;
+        }
+
+        public void setDeliveryThreads(int deliveryThreads) {
+            this.deliveryThreads = deliveryThreads;
+        }
+    }
+
+    /**
+     * Log of the material changes, for delta synchronization, see {@link matchless.service.MaterialChangeLog}.
+     */
+    public static class ChangeLog {
+
+        private long settleSeconds = 5;
+
+        private int batchSize = 500;
+
+        private long compactIntervalSeconds = 3600;
+
+        public long getSettleSeconds() {
+            return settleSeconds;
+        }
+
+        public void setSettleSeconds(long settleSeconds) {
+            this.settleSeconds = settleSeconds;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getCompactIntervalSeconds() {
+            return compactIntervalSeconds;
+        }
+
+        public void setCompactIntervalSeconds(long compactIntervalSeconds) {
+            this.compactIntervalSeconds = compactIntervalSeconds;
+        }
+    }
+
+    /**
+     * Relay of the client activities, see {@link matchless.web.websocket.ActivityService}.
+     */
+    public static class Tracker {
+
+        private long windowMillis = 250;
+
+        public long getWindowMillis() {
+            return windowMillis;
+        }
+
+        public void setWindowMillis(long windowMillis) {
+            this.windowMillis = windowMillis;
+        }
+    }
+
+    /**
+     * In-process STOMP broker, see {@link WebsocketConfiguration} and {@link WebsocketBrokerConfiguration}.
+     */
+    public static class StompBroker {
+
+        private int shards = 0;
+
+        private int subscriberQueueCapacity = 1000;
+
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+        private int sendTimeLimitMillis = 10_000;
+
+        private int sendBufferSizeLimit = 512 * 1024;
+
+        public int getShards() {
+            return shards;
+        }
+
+        public void setShards(int shards) {
+            this.shards = shards;
+        }
+
+        public int getSubscriberQueueCapacity() {
+            return subscriberQueueCapacity;
+        }
+
+        public void setSubscriberQueueCapacity(int subscriberQueueCapacity) {
+            this.subscriberQueueCapacity = subscriberQueueCapacity;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        public int getSendTimeLimitMillis() {
+            return sendTimeLimitMillis;
+        }
+
+        public void setSendTimeLimitMillis(int sendTimeLimitMillis) {
+            this.sendTimeLimitMillis = sendTimeLimitMillis;
+        }
+
+        public int getSendBufferSizeLimit() {
+            return sendBufferSizeLimit;
+        }
+
+        public void setSendBufferSizeLimit(int sendBufferSizeLimit) {
+            this.sendBufferSizeLimit = sendBufferSizeLimit;
+        }
+
+        /**
+         * What happens to a message for a subscriber whose queue is full.
+         */
+        public enum OverflowPolicy {
+            /**
+             * The message is dropped.
+             */
+            DROP,
+            /**
+             * The message is dropped and the subscriber is disconnected, so that it reconnects and starts afresh.
+             */
+            DISCONNECT,
+        }
+    }
+
+    /**
+     * Executor of the asynchronous MVC requests, such as the writes of the streaming endpoints, see
+     * {@link AsyncWebConfiguration}.
+     */
+    public static class MvcAsync {
+
+        private int threads = 16;
+
+        private int queueCapacity = 1000;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
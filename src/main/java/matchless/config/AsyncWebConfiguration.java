@@ -0,0 +1,52 @@
+package matchless.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configure the executor of the asynchronous MVC requests.
+ * <p>
+ * The streaming endpoints return a {@code Flux}, each element of which is written to the response on this executor.
+ * Those servlet writes stay blocking: a thread is held for as long as a slow client takes to accept a line. The pool is
+ * therefore bounded by {@code application.mvc-async}, instead of the default executor starting a thread per write.
+ */
+@Configuration
+public class AsyncWebConfiguration implements WebMvcConfigurer {
+
+    private final Logger log = LoggerFactory.getLogger(AsyncWebConfiguration.class);
+
+    private final ApplicationProperties applicationProperties;
+
+    private final Environment environment;
+
+    public AsyncWebConfiguration(ApplicationProperties applicationProperties, Environment environment) {
+        this.applicationProperties = applicationProperties;
+        this.environment = environment;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor mvcAsyncExecutor() {
+        log.debug("Creating MVC Async Executor");
+        ApplicationProperties.MvcAsync mvcAsync = applicationProperties.getMvcAsync();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(mvcAsync.getThreads());
+        executor.setMaxPoolSize(mvcAsync.getThreads());
+        executor.setQueueCapacity(mvcAsync.getQueueCapacity());
+        executor.setThreadNamePrefix("matchless-mvc-async-");
+        // Virtual threads are still pooled, so that the blocked writes stay bounded
+        executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor());
+    }
+}
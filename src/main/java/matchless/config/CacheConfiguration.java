@@ -1,9 +1,13 @@
 package matchless.config;
 
 import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashSet;
 import java.util.OptionalLong;
 import java.util.concurrent.TimeUnit;
+import matchless.cache.TieredJCacheRegionFactory;
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
@@ -34,8 +38,26 @@ public class CacheConfiguration {
     }
 
     @Bean
-    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
-        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(
+        javax.cache.CacheManager cacheManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.OffHeapCache offHeapCache = applicationProperties.getOffHeapCache();
+        return hibernateProperties -> {
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            if (offHeapCache.isEnabled()) {
+                hibernateProperties.put(
+                    AvailableSettings.CACHE_REGION_FACTORY,
+                    new TieredJCacheRegionFactory(
+                        new HashSet<>(offHeapCache.getRegions()),
+                        offHeapCache.getMaxMegabytesPerRegion() * 1024 * 1024,
+                        offHeapCache.getSlabMegabytes() * 1024 * 1024,
+                        meterRegistry
+                    )
+                );
+            }
+        };
     }
 
     @Bean
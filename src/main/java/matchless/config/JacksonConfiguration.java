@@ -1,11 +1,28 @@
 package matchless.config;
 
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
 import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module.Feature;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.util.List;
+import matchless.domain.Material;
+import matchless.domain.MaterialMethod;
+import matchless.service.dto.AdminUserDTO;
+import matchless.service.dto.UserDTO;
+import matchless.web.rest.SparseFieldsetAdvice;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 
 @Configuration
 public class JacksonConfiguration {
@@ -31,4 +48,48 @@ public class JacksonConfiguration {
     public Hibernate6Module hibernate6Module() {
         return new Hibernate6Module().configure(Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS, true);
     }
+
+    /**
+     * Support for the binary Smile format, negotiated with the {@code application/x-jackson-smile} media type.
+     * <p>
+     * The object mapper is built from the application's {@link Jackson2ObjectMapperBuilder}, so that it has the same
+     * modules and features as the JSON one.
+     * @return the corresponding message converter.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Support for the binary CBOR format, negotiated with the {@code application/cbor} media type.
+     * @return the corresponding message converter.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Support for sparse fieldsets: the types listed here are serialized through the
+     * {@value SparseFieldsetAdvice#FILTER_ID} filter, which only exists when a {@code fields} parameter is requested.
+     * @return the corresponding customizer of the object mappers.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsetCustomizer() {
+        List<Class<?>> filteredTypes = List.of(Material.class, MaterialMethod.class, AdminUserDTO.class, UserDTO.class);
+        NopAnnotationIntrospector filterIntrospector = new NopAnnotationIntrospector() {
+            @Override
+            public Object findFilterId(Annotated annotated) {
+                boolean filtered =
+                    annotated instanceof AnnotatedClass annotatedClass &&
+                    filteredTypes.stream().anyMatch(type -> type.isAssignableFrom(annotatedClass.getRawType()));
+                return filtered ? SparseFieldsetAdvice.FILTER_ID : null;
+            }
+        };
+        return builder ->
+            builder
+                .filters(new SimpleFilterProvider().setFailOnUnknownId(false))
+                .annotationIntrospector(introspector -> AnnotationIntrospector.pair(filterIntrospector, introspector));
+    }
 }
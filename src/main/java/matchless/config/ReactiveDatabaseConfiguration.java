@@ -0,0 +1,55 @@
+package matchless.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Configuration of the R2DBC access to the database, used by the read-only streaming endpoints.
+ * <p>
+ * The connection pool is deliberately not exposed as a {@code ConnectionFactory} bean: Spring Boot backs off its JDBC
+ * {@code DataSource} and R2DBC transaction manager when one exists, and JPA, Liquibase and {@code @Transactional} must
+ * keep running on JDBC. For the same reason {@code R2dbcAutoConfiguration} is excluded in {@code application.yml}.
+ */
+@Configuration
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class ReactiveDatabaseConfiguration implements DisposableBean {
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(R2dbcProperties properties) {
+        ConnectionFactoryBuilder connectionFactory = ConnectionFactoryBuilder.withUrl(properties.getUrl());
+        if (properties.getUsername() != null) {
+            connectionFactory = connectionFactory.username(properties.getUsername());
+        }
+        if (properties.getPassword() != null) {
+            connectionFactory = connectionFactory.password(properties.getPassword());
+        }
+        R2dbcProperties.Pool pool = properties.getPool();
+        connectionPool =
+            new ConnectionPool(
+                ConnectionPoolConfiguration
+                    .builder(connectionFactory.build())
+                    .name("R2dbc")
+                    .initialSize(pool.getInitialSize())
+                    .maxSize(pool.getMaxSize())
+                    .maxIdleTime(pool.getMaxIdleTime())
+                    .build()
+            );
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
@@ -2,21 +2,32 @@ package matchless.config;
 
 import static matchless.security.SecurityUtils.AUTHORITIES_KEY;
 import static matchless.security.SecurityUtils.JWT_ALGORITHM;
+import static matchless.security.SecurityUtils.JWT_CLOCK_SKEW;
 
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import com.nimbusds.jose.util.Base64;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import matchless.management.SecurityMetersService;
+import matchless.security.AuthenticationPhaseTimers;
+import matchless.security.AuthenticationPhaseTimers.Phase;
+import matchless.security.CachingJwtDecoder;
+import matchless.security.InternedAuthoritiesConverter;
+import matchless.security.LoginThrottle;
+import matchless.security.TokenRevocationList;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
-import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
 import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
 
@@ -27,9 +38,42 @@ public class SecurityJwtConfiguration {
     private String jwtKey;
 
     @Bean
-    public JwtDecoder jwtDecoder(SecurityMetersService metersService) {
+    public AuthenticationPhaseTimers authenticationPhaseTimers(MeterRegistry meterRegistry) {
+        return new AuthenticationPhaseTimers(meterRegistry);
+    }
+
+    @Bean
+    public LoginThrottle loginThrottle(
+        ApplicationProperties applicationProperties,
+        SecurityMetersService metersService,
+        MeterRegistry meterRegistry
+    ) {
+        return new LoginThrottle(applicationProperties.getLoginThrottle(), metersService, meterRegistry);
+    }
+
+    @Bean
+    public TokenRevocationList tokenRevocationList(ApplicationProperties applicationProperties) {
+        ApplicationProperties.TokenRevocation tokenRevocation = applicationProperties.getTokenRevocation();
+        return new TokenRevocationList(
+            Duration.ofMinutes(tokenRevocation.getBucketMinutes()),
+            tokenRevocation.getExpectedRevocationsPerBucket(),
+            tokenRevocation.getFalsePositiveProbability(),
+            JWT_CLOCK_SKEW
+        );
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(
+        SecurityMetersService metersService,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        AuthenticationPhaseTimers authenticationPhaseTimers,
+        TokenRevocationList tokenRevocationList
+    ) {
         NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
-        return token -> {
+        // Explicit, as revoked tokens must be held as long as they are accepted
+        jwtDecoder.setJwtValidator(new JwtTimestampValidator(JWT_CLOCK_SKEW));
+        JwtDecoder verifyingDecoder = token -> {
             try {
                 return jwtDecoder.decode(token);
             } catch (Exception e) {
@@ -45,6 +89,19 @@ public class SecurityJwtConfiguration {
                 throw e;
             }
         };
+        ApplicationProperties.JwtCache jwtCache = applicationProperties.getJwtCache();
+        JwtDecoder decoder = jwtCache.isEnabled()
+            ? new CachingJwtDecoder(verifyingDecoder, jwtCache.getMaxEntries(), meterRegistry)
+            : verifyingDecoder;
+        JwtDecoder revocationCheckingDecoder = token -> {
+            Jwt jwt = decoder.decode(token);
+            if (jwt.getId() != null && jwt.getExpiresAt() != null && tokenRevocationList.isRevoked(jwt.getId(), jwt.getExpiresAt())) {
+                metersService.trackTokenRevoked();
+                throw new BadJwtException("Jwt has been revoked");
+            }
+            return jwt;
+        };
+        return token -> authenticationPhaseTimers.record(Phase.JWT_DECODE, () -> revocationCheckingDecoder.decode(token));
     }
 
     @Bean
@@ -53,13 +110,13 @@ public class SecurityJwtConfiguration {
     }
 
     @Bean
-    public JwtAuthenticationConverter jwtAuthenticationConverter() {
-        JwtGrantedAuthoritiesConverter grantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
-        grantedAuthoritiesConverter.setAuthorityPrefix("");
-        grantedAuthoritiesConverter.setAuthoritiesClaimName(AUTHORITIES_KEY);
+    public JwtAuthenticationConverter jwtAuthenticationConverter(AuthenticationPhaseTimers authenticationPhaseTimers) {
+        InternedAuthoritiesConverter grantedAuthoritiesConverter = new InternedAuthoritiesConverter(AUTHORITIES_KEY, 1_000);
 
         JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
-        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(grantedAuthoritiesConverter);
+        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(jwt ->
+            authenticationPhaseTimers.record(Phase.AUTHORITIES_CONVERSION, () -> grantedAuthoritiesConverter.convert(jwt))
+        );
         return jwtAuthenticationConverter;
     }
 
@@ -7,6 +7,7 @@ import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
 import tech.jhipster.config.JHipsterConstants;
 import tech.jhipster.config.JHipsterProperties;
 
@@ -28,6 +29,10 @@ public class StaticResourcesWebConfiguration implements WebMvcConfigurer {
         "/content/**",
         "/i18n/*",
     };
+    /**
+     * The bundles whose file names contain the hash of their content, which never change once published.
+     */
+    protected static final String[] HASHED_RESOURCE_PATHS = new String[] { "/{name:[\\w-]+}.{hash:[0-9a-f]+}.{extension:js|css}" };
 
     private final JHipsterProperties jhipsterProperties;
 
@@ -37,6 +42,7 @@ public class StaticResourcesWebConfiguration implements WebMvcConfigurer {
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        initializeHashedResourceHandler(registry.addResourceHandler(HASHED_RESOURCE_PATHS));
         ResourceHandlerRegistration resourceHandlerRegistration = appendResourceHandler(registry);
         initializeResourceHandler(resourceHandlerRegistration);
     }
@@ -46,13 +52,35 @@ public class StaticResourcesWebConfiguration implements WebMvcConfigurer {
     }
 
     protected void initializeResourceHandler(ResourceHandlerRegistration resourceHandlerRegistration) {
-        resourceHandlerRegistration.addResourceLocations(RESOURCE_LOCATIONS).setCacheControl(getCacheControl());
+        resourceHandlerRegistration
+            .addResourceLocations(RESOURCE_LOCATIONS)
+            .setCacheControl(getCacheControl())
+            .resourceChain(true)
+            .addResolver(new EncodedResourceResolver());
+    }
+
+    /**
+     * Serve the hashed bundles with an immutable cache control, and their precompressed {@code .br} or {@code .gz}
+     * variant when the client accepts it, so that they are neither compressed again nor revalidated.
+     *
+     * @param resourceHandlerRegistration the registration of the hashed bundles.
+     */
+    protected void initializeHashedResourceHandler(ResourceHandlerRegistration resourceHandlerRegistration) {
+        resourceHandlerRegistration
+            .addResourceLocations(RESOURCE_LOCATIONS)
+            .setCacheControl(getHashedCacheControl())
+            .resourceChain(true)
+            .addResolver(new EncodedResourceResolver());
     }
 
     protected CacheControl getCacheControl() {
         return CacheControl.maxAge(getJHipsterHttpCacheProperty(), TimeUnit.DAYS).cachePublic();
     }
 
+    protected CacheControl getHashedCacheControl() {
+        return CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    }
+
     private int getJHipsterHttpCacheProperty() {
         return jhipsterProperties.getHttp().getCache().getTimeToLiveInDays();
     }
@@ -0,0 +1,64 @@
+package matchless.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import matchless.management.VirtualThreadPinningMonitor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+
+/**
+ * Beans specific to running on virtual threads, see the {@code virtual-threads} profile.
+ * <p>
+ * The scheduler and servlet requests are moved to virtual threads here, the {@code taskExecutor} by
+ * {@link AsyncConfiguration} and the STOMP channels by {@link WebsocketConfiguration}.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableConfigurationProperties(TaskSchedulingProperties.class)
+public class VirtualThreadsConfiguration {
+
+    /**
+     * Spring Boot backs off its virtual-thread scheduler, as the STOMP broker registers a {@code TaskScheduler} of its
+     * own: run the {@code @Scheduled} tasks, which look up the scheduler named {@code taskScheduler} when there are
+     * several, on a virtual thread each.
+     */
+    @Bean
+    public SimpleAsyncTaskScheduler taskScheduler(TaskSchedulingProperties taskSchedulingProperties) {
+        SimpleAsyncTaskScheduler scheduler = new SimpleAsyncTaskScheduler();
+        scheduler.setThreadNamePrefix(taskSchedulingProperties.getThreadNamePrefix());
+        scheduler.setVirtualThreads(true);
+        return scheduler;
+    }
+
+    /**
+     * Spring Boot only moves Tomcat and Jetty to virtual threads: have Undertow dispatch servlet requests, which it
+     * runs on its worker pool otherwise, to a virtual thread each.
+     */
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> undertowVirtualThreadsCustomizer() {
+        return factory ->
+            factory.addDeploymentInfoCustomizers(deploymentInfo -> {
+                deploymentInfo.setExecutor(new VirtualThreadTaskExecutor("undertow-"));
+                deploymentInfo.setAsyncExecutor(new VirtualThreadTaskExecutor("undertow-async-"));
+            });
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        return new VirtualThreadPinningMonitor(
+            Duration.ofMillis(applicationProperties.getVirtualThreads().getPinnedThresholdMillis()),
+            meterRegistry
+        );
+    }
+}
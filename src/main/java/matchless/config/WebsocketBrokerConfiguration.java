@@ -0,0 +1,47 @@
+package matchless.config;
+
+import matchless.config.ApplicationProperties.StompBroker.OverflowPolicy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * Enable the STOMP broker configured by {@link WebsocketConfiguration}, in place of {@code @EnableWebSocketMessageBroker}.
+ * <p>
+ * The messages handed to a WebSocket session are buffered while it sends an earlier one, up to the send limits of
+ * {@code application.stomp-broker}. Past them, {@code application.stomp-broker.overflow-policy} applies there too: the
+ * oldest buffered messages are dropped with {@link OverflowPolicy#DROP}, the session is closed with
+ * {@link OverflowPolicy#DISCONNECT}. A send exceeding the time limit always closes the session.
+ */
+@Configuration
+public class WebsocketBrokerConfiguration extends DelegatingWebSocketMessageBrokerConfiguration {
+
+    private final OverflowStrategy overflowStrategy;
+
+    public WebsocketBrokerConfiguration(ApplicationProperties applicationProperties) {
+        this.overflowStrategy =
+            applicationProperties.getStompBroker().getOverflowPolicy() == OverflowPolicy.DROP
+                ? OverflowStrategy.DROP
+                : OverflowStrategy.TERMINATE;
+    }
+
+    @Override
+    @Bean
+    public WebSocketHandler subProtocolWebSocketHandler(
+        AbstractSubscribableChannel clientInboundChannel,
+        AbstractSubscribableChannel clientOutboundChannel
+    ) {
+        return new SubProtocolWebSocketHandler(clientInboundChannel, clientOutboundChannel) {
+            @Override
+            protected WebSocketSession decorateSession(WebSocketSession session) {
+                return new ConcurrentWebSocketSessionDecorator(session, getSendTimeLimit(), getSendBufferSizeLimit(), overflowStrategy);
+            }
+        };
+    }
+}
@@ -1,12 +1,20 @@
 package matchless.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import java.security.Principal;
 import java.util.*;
 import matchless.security.AuthoritiesConstants;
+import matchless.web.websocket.DestinationShardedExecutor;
+import matchless.web.websocket.SubscriberBackpressureInterceptor;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.http.server.*;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.web.socket.WebSocketHandler;
@@ -15,21 +23,85 @@ import org.springframework.web.socket.server.HandshakeInterceptor;
 import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
 import tech.jhipster.config.JHipsterProperties;
 
+/**
+ * Configuration of the STOMP endpoint and broker, enabled by {@link WebsocketBrokerConfiguration}.
+ */
 @Configuration
-@EnableWebSocketMessageBroker
 public class WebsocketConfiguration implements WebSocketMessageBrokerConfigurer {
 
     public static final String IP_ADDRESS = "IP_ADDRESS";
 
     private final JHipsterProperties jHipsterProperties;
 
-    public WebsocketConfiguration(JHipsterProperties jHipsterProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    private final Environment environment;
+
+    private final MeterRegistry meterRegistry;
+
+    private final SubscriberBackpressureInterceptor subscriberBackpressureInterceptor;
+
+    public WebsocketConfiguration(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        Environment environment,
+        MeterRegistry meterRegistry
+    ) {
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.subscriberBackpressureInterceptor = new SubscriberBackpressureInterceptor(applicationProperties, meterRegistry);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            registration.taskExecutor(virtualThreadsChannelExecutor("stomp-inbound-"));
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            registration.taskExecutor(virtualThreadsChannelExecutor("stomp-outbound-"));
+        }
+        registration.interceptors(subscriberBackpressureInterceptor);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(applicationProperties.getStompBroker().getSendTimeLimitMillis());
+        registration.setSendBufferSizeLimit(applicationProperties.getStompBroker().getSendBufferSizeLimit());
+        registration.addDecoratorFactory(subscriberBackpressureInterceptor);
+    }
+
+    /**
+     * The channels only take a {@link ThreadPoolTaskExecutor}: give it virtual threads, and enough of them that
+     * messages blocked on I/O do not hold back the others. Idle threads time out, as they are not worth keeping.
+     */
+    private ThreadPoolTaskExecutor virtualThreadsChannelExecutor(String threadNamePrefix) {
+        int concurrency = applicationProperties.getVirtualThreads().getStompChannelConcurrency();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadFactory(new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory());
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setAllowCoreThreadTimeOut(true);
+        return executor;
     }
 
+    /**
+     * The simple broker fans out the messages published by the server on the broker channel: shard it by destination,
+     * so that the destinations are served in parallel rather than on the publishing thread.
+     */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic");
+        int shards = applicationProperties.getStompBroker().getShards();
+        if (shards <= 0) {
+            shards = Runtime.getRuntime().availableProcessors();
+        }
+        config.configureBrokerChannel().taskExecutor(new DestinationShardedExecutor(shards, "stomp-broker-", meterRegistry));
     }
 
     @Override
@@ -0,0 +1,119 @@
+package matchless.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.Instant;
+import matchless.domain.enumeration.ChangeLogOperation;
+
+/**
+ * A write to an entity, numbered by an increasing sequence, see {@link matchless.service.MaterialChangeLog}.
+ */
+@Entity
+@Table(name = "change_log")
+public class ChangeLogEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "changeLogSequenceGenerator")
+    @SequenceGenerator(name = "changeLogSequenceGenerator", sequenceName = "change_log_sequence", allocationSize = 1)
+    @Column(name = "change_sequence")
+    private Long sequence;
+
+    @NotNull
+    @Size(max = 32)
+    @Column(name = "entity_type", length = 32, nullable = false)
+    private String entityType;
+
+    @NotNull
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", length = 16, nullable = false)
+    private ChangeLogOperation operation;
+
+    @NotNull
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public ChangeLogOperation getOperation() {
+        return operation;
+    }
+
+    public void setOperation(ChangeLogOperation operation) {
+        this.operation = operation;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(Instant changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ChangeLogEntry)) {
+            return false;
+        }
+        return sequence != null && sequence.equals(((ChangeLogEntry) o).sequence);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ChangeLogEntry{" +
+            "sequence=" + sequence +
+            ", entityType='" + entityType + '\'' +
+            ", entityId=" + entityId +
+            ", operation='" + operation + '\'' +
+            ", changedAt='" + changedAt + '\'' +
+            "}";
+    }
+}
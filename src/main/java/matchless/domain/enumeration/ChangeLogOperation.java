@@ -0,0 +1,10 @@
+package matchless.domain.enumeration;
+
+/**
+ * The ChangeLogOperation enumeration.
+ */
+public enum ChangeLogOperation {
+    INSERT,
+    UPDATE,
+    DELETE,
+}
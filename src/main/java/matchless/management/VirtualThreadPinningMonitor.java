@@ -0,0 +1,99 @@
+package matchless.management;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Reports virtual threads pinned to their carrier thread, for instance while blocking inside a {@code synchronized}
+ * block of a JDBC driver or connection pool: a pinned virtual thread holds its carrier, so enough of them starve the
+ * other virtual threads.
+ * <p>
+ * Listens to the {@value #PINNED_EVENT} JFR events of this JVM. Each pin is recorded in the {@value #METER_NAME}
+ * timer, and the first pin at each code location is logged with its stack trace.
+ */
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    public static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    public static final String METER_NAME = "jvm.threads.virtual.pinned";
+
+    private static final int MAX_REPORTED_LOCATIONS = 1_000;
+
+    private static final int REPORTED_FRAMES = 12;
+
+    private final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private final Duration threshold;
+
+    private final Timer pinnedTimer;
+
+    private final Map<String, Boolean> reportedLocations = new ConcurrentHashMap<>();
+
+    private RecordingStream recordingStream;
+
+    /**
+     * @param threshold the shortest pin to report.
+     * @param meterRegistry the registry of the pin timer.
+     */
+    public VirtualThreadPinningMonitor(Duration threshold, MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.pinnedTimer =
+            Timer
+                .builder(METER_NAME)
+                .description("Time virtual threads spent blocked while pinned to their carrier thread.")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("Reporting virtual threads pinned for more than {} ms", threshold.toMillis());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+            recordingStream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return;
+        }
+        String location = describe(stackTrace.getFrames().get(0));
+        if (reportedLocations.size() < MAX_REPORTED_LOCATIONS && reportedLocations.putIfAbsent(location, Boolean.TRUE) == null) {
+            log.warn(
+                "Virtual thread pinned for {} ms at:\n\t{}",
+                event.getDuration().toMillis(),
+                stackTrace.getFrames().stream().limit(REPORTED_FRAMES).map(this::describe).collect(Collectors.joining("\n\t"))
+            );
+        }
+    }
+
+    private String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
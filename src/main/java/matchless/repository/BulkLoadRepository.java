@@ -0,0 +1,62 @@
+package matchless.repository;
+
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.Objects;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository loading several entities of a type by id at once.
+ * <p>
+ * The entities are looked up in the persistence context and the second-level cache first, and only the misses are
+ * read, with a single {@code IN} query, unless they are loaded from the database.
+ */
+@Repository
+public class BulkLoadRepository {
+
+    private final EntityManager entityManager;
+
+    public BulkLoadRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Load the entities with the given ids.
+     *
+     * @param entityType the type of the entities.
+     * @param ids the ids of the entities, without duplicates.
+     * @return the entities that exist, in the order of {@code ids}.
+     */
+    public <T> List<T> findAllByIdInOrder(Class<T> entityType, List<Long> ids) {
+        return findAllByIdInOrder(entityType, ids, CacheMode.NORMAL);
+    }
+
+    /**
+     * Load the entities with the given ids from the database, neither reading nor populating the second-level cache.
+     *
+     * @param entityType the type of the entities.
+     * @param ids the ids of the entities, without duplicates.
+     * @return the entities that exist, in the order of {@code ids}.
+     */
+    public <T> List<T> findAllByIdInOrderFromDatabase(Class<T> entityType, List<Long> ids) {
+        return findAllByIdInOrder(entityType, ids, CacheMode.IGNORE);
+    }
+
+    private <T> List<T> findAllByIdInOrder(Class<T> entityType, List<Long> ids, CacheMode cacheMode) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager
+            .unwrap(Session.class)
+            .byMultipleIds(entityType)
+            .with(cacheMode)
+            .withBatchSize(ids.size())
+            .enableOrderedReturn(true)
+            .multiLoad(ids)
+            .stream()
+            .filter(Objects::nonNull)
+            .toList();
+    }
+}
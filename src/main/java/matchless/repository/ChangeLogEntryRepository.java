@@ -0,0 +1,33 @@
+package matchless.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import matchless.domain.ChangeLogEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link ChangeLogEntry} entity.
+ */
+@Repository
+public interface ChangeLogEntryRepository extends JpaRepository<ChangeLogEntry, Long> {
+    List<ChangeLogEntry> findAllBySequenceGreaterThanAndChangedAtLessThanEqualOrderBySequence(Long sequence, Instant dateTime, Limit limit);
+
+    Optional<ChangeLogEntry> findFirstByChangedAtLessThanEqualOrderBySequenceDesc(Instant dateTime);
+
+    /**
+     * Delete the entries followed by a later entry for the same entity, which supersedes them.
+     *
+     * @return the number of deleted entries.
+     */
+    @Modifying
+    @Query(
+        "delete from ChangeLogEntry e where exists (select 1 from ChangeLogEntry l " +
+        "where l.entityType = e.entityType and l.entityId = e.entityId and l.sequence > e.sequence)"
+    )
+    int deleteSuperseded();
+}
@@ -0,0 +1,61 @@
+package matchless.repository;
+
+import io.r2dbc.spi.Readable;
+import matchless.domain.Material;
+import matchless.domain.MaterialMethod;
+import matchless.domain.enumeration.MethodType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Read-only R2DBC repository streaming the Material and MaterialMethod entities.
+ * <p>
+ * Rows are read on demand: the driver fetches {@value #FETCH_SIZE} rows at a time and only as fast as the subscriber
+ * consumes them, so a full table export holds neither a JDBC connection nor the whole result set in memory. The
+ * entities are detached copies, with their lazy associations left out and the name of a MaterialMethod holding only
+ * its id.
+ */
+@Repository
+public class MaterialStreamRepository {
+
+    static final int FETCH_SIZE = 256;
+
+    private final DatabaseClient databaseClient;
+
+    public MaterialStreamRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<Material> streamAllMaterials() {
+        return databaseClient
+            .sql("select id, name, description from material order by id")
+            .filter(statement -> statement.fetchSize(FETCH_SIZE))
+            .map(MaterialStreamRepository::toMaterial)
+            .all();
+    }
+
+    public Flux<MaterialMethod> streamAllMaterialMethods() {
+        return databaseClient
+            .sql("select id, type, name_id from material_method order by id")
+            .filter(statement -> statement.fetchSize(FETCH_SIZE))
+            .map(MaterialStreamRepository::toMaterialMethod)
+            .all();
+    }
+
+    private static Material toMaterial(Readable row) {
+        return new Material()
+            .id(row.get("id", Long.class))
+            .name(row.get("name", String.class))
+            .description(row.get("description", String.class))
+            .methods(null);
+    }
+
+    private static MaterialMethod toMaterialMethod(Readable row) {
+        Long nameId = row.get("name_id", Long.class);
+        return new MaterialMethod()
+            .id(row.get("id", Long.class))
+            .type(MethodType.valueOf(row.get("type", String.class)))
+            .name(nameId != null ? new Material().id(nameId).methods(null) : null);
+    }
+}
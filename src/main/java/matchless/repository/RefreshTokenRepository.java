@@ -0,0 +1,42 @@
+package matchless.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import matchless.domain.RefreshToken;
+import matchless.domain.User;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link RefreshToken} entity.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    @EntityGraph(attributePaths = { "user", "user.authorities" })
+    Optional<RefreshToken> findOneWithUserByTokenHash(String tokenHash);
+
+    Optional<RefreshToken> findOneByTokenHash(String tokenHash);
+
+    /**
+     * @return {@code 1} if the token was marked used, {@code 0} if another request used it first.
+     */
+    @Modifying
+    @Query("update RefreshToken t set t.usedAt = :usedAt where t.id = :id and t.usedAt is null")
+    int markUsed(@Param("id") Long id, @Param("usedAt") Instant usedAt);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.family = :family")
+    int deleteAllByFamily(@Param("family") String family);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.user = :user")
+    int deleteAllByUser(@Param("user") User user);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.expiresAt < :dateTime")
+    int deleteAllByExpiresAtBefore(@Param("dateTime") Instant dateTime);
+}
@@ -0,0 +1,24 @@
+package matchless.repository;
+
+import java.time.Instant;
+import java.util.List;
+import matchless.domain.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link RevokedToken} entity.
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+    List<RevokedToken> findAllByExpiresAtAfter(Instant dateTime);
+
+    List<RevokedToken> findAllByRevokedAtAfterAndExpiresAtAfter(Instant revokedAt, Instant expiresAt);
+
+    @Modifying
+    @Query("delete from RevokedToken t where t.expiresAt < :dateTime")
+    int deleteAllByExpiresAtBefore(@Param("dateTime") Instant dateTime);
+}
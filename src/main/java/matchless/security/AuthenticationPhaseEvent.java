@@ -0,0 +1,23 @@
+package matchless.security;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a phase of authentication, see {@link AuthenticationPhaseTimers}.
+ */
+@Name("matchless.AuthenticationPhase")
+@Label("Authentication Phase")
+@Category({ "Matchless", "Security" })
+@Description("A phase of authentication: JWT decoding, authorities conversion, user lookup, password hashing or token encoding.")
+class AuthenticationPhaseEvent extends Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Success")
+    boolean success;
+}
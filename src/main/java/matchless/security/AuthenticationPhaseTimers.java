@@ -0,0 +1,101 @@
+package matchless.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Times the phases of authentication, to show how much of request latency and CPU goes to each of them.
+ * <p>
+ * Each phase is recorded in the {@value #METER_NAME} timer, tagged with the phase and whether it succeeded, and as an
+ * {@link AuthenticationPhaseEvent} when a JFR recording enables it. A phase fails when it throws, or when its result
+ * is a failure, such as a password that does not match.
+ */
+public class AuthenticationPhaseTimers {
+
+    public static final String METER_NAME = "security.authentication.phase";
+
+    public enum Phase {
+        JWT_DECODE("jwt-decode"),
+        AUTHORITIES_CONVERSION("authorities-conversion"),
+        USER_LOOKUP("user-lookup"),
+        PASSWORD_MATCH("password-match"),
+        PASSWORD_ENCODE("password-encode"),
+        TOKEN_ENCODE("token-encode");
+
+        private final String tag;
+
+        Phase(String tag) {
+            this.tag = tag;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+    }
+
+    private final Map<Phase, Timer> successTimers = new EnumMap<>(Phase.class);
+
+    private final Map<Phase, Timer> failureTimers = new EnumMap<>(Phase.class);
+
+    public AuthenticationPhaseTimers(MeterRegistry registry) {
+        for (Phase phase : Phase.values()) {
+            successTimers.put(phase, timerBuilder(phase, "success").register(registry));
+            failureTimers.put(phase, timerBuilder(phase, "failure").register(registry));
+        }
+    }
+
+    private static Timer.Builder timerBuilder(Phase phase, String outcome) {
+        return Timer
+            .builder(METER_NAME)
+            .description("Time spent in each phase of authentication.")
+            .tag("phase", phase.getTag())
+            .tag("outcome", outcome)
+            .publishPercentileHistogram();
+    }
+
+    /**
+     * Run and time a phase of authentication.
+     *
+     * @param phase the phase.
+     * @param operation the work of the phase.
+     * @param <T> the result type.
+     * @return the result of the operation.
+     */
+    public <T> T record(Phase phase, Supplier<T> operation) {
+        return record(phase, operation, result -> true);
+    }
+
+    /**
+     * Run and time a phase of authentication whose result may be a failure.
+     *
+     * @param phase the phase.
+     * @param operation the work of the phase.
+     * @param successful whether a result is a success.
+     * @param <T> the result type.
+     * @return the result of the operation.
+     */
+    public <T> T record(Phase phase, Supplier<T> operation, Predicate<? super T> successful) {
+        AuthenticationPhaseEvent event = new AuthenticationPhaseEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = operation.get();
+            success = successful.test(result);
+            return result;
+        } finally {
+            (success ? successTimers : failureTimers).get(phase).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = phase.getTag();
+                event.success = success;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package matchless.security;
+
+/**
+ * Thrown when an authentication is refused because of load, rather than because of its credentials.
+ */
+public class AuthenticationThrottledException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public AuthenticationThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return the number of seconds after which the client may try again.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
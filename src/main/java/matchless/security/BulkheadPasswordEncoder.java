@@ -0,0 +1,136 @@
+package matchless.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * A {@link PasswordEncoder} that runs its delegate on a dedicated, bounded pool of threads.
+ * <p>
+ * Password hashing is deliberately expensive: run on the request threads, a login storm would take all of them and
+ * starve the rest of the API. Here, at most {@code threads} hashes run at once and at most {@code queueCapacity}
+ * wait; further requests are refused at once with an {@link AuthenticationThrottledException}. The request threads
+ * blocked on hashing are therefore bounded by {@code threads + queueCapacity}, which should stay well below the size
+ * of the servlet worker pool.
+ * <p>
+ * Rehashing a password with an outdated encoding on login is best-effort: {@link #upgradeEncoding(String)} answers
+ * {@code false} while no thread is idle, so that a login whose password matched is neither refused nor made to wait for
+ * a second hash. The password is upgraded on a later login.
+ * <p>
+ * The pool is monitored as the {@value #EXECUTOR_NAME} executor: queue depth, hash latency and time spent queued.
+ */
+public class BulkheadPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    public static final String EXECUTOR_NAME = "passwordHashing";
+
+    public static final String REJECTED_METER_NAME = "security.password-hashing.rejected";
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor threadPool;
+
+    private final ExecutorService executor;
+
+    private final Counter rejectedCounter;
+
+    private final long retryAfterSeconds;
+
+    /**
+     * @param delegate the hashing encoder.
+     * @param threads the number of hashes run at once.
+     * @param queueCapacity the number of hashes that may wait for a thread.
+     * @param retryAfterSeconds the delay suggested to refused clients.
+     * @param meterRegistry the registry of the executor meters.
+     */
+    public BulkheadPasswordEncoder(
+        PasswordEncoder delegate,
+        int threads,
+        int queueCapacity,
+        long retryAfterSeconds,
+        MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.threadPool =
+            new ThreadPoolExecutor(
+                threads,
+                threads,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                new CustomizableThreadFactory("password-hashing-")
+            );
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPool, EXECUTOR_NAME);
+        this.rejectedCounter =
+            Counter
+                .builder(REJECTED_METER_NAME)
+                .description("Password hashes refused because the password hashing pool was saturated.")
+                .register(meterRegistry);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword) && !isSaturated();
+    }
+
+    private boolean isSaturated() {
+        return threadPool.getActiveCount() >= threadPool.getMaximumPoolSize() || !threadPool.getQueue().isEmpty();
+    }
+
+    private <T> T submit(Supplier<T> hashing) {
+        Future<T> result;
+        try {
+            result = executor.submit(hashing::get);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new AuthenticationThrottledException("Too many concurrent authentications", retryAfterSeconds);
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * @return the number of hashes waiting for a thread.
+     */
+    public int getQueueDepth() {
+        return threadPool.getQueue().size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
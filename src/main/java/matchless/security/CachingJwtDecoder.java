@@ -0,0 +1,97 @@
+package matchless.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * A {@link JwtDecoder} that remembers the tokens it has verified, so that a token presented again is not verified and
+ * parsed again.
+ * <p>
+ * Entries are keyed by the SHA-256 digest of the token, so that bearer tokens are not kept in memory, and expire at
+ * the expiry of their token. Only successfully decoded tokens are cached: invalid tokens always reach the delegate.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    public static final String CACHE_NAME = "jwtCache";
+
+    private final JwtDecoder delegate;
+
+    private final Cache<String, Jwt> cache;
+
+    /**
+     * @param delegate the decoder verifying the tokens.
+     * @param maxEntries the maximum number of tokens to remember.
+     * @param meterRegistry the registry of the hit and miss meters of the cache.
+     */
+    public CachingJwtDecoder(JwtDecoder delegate, long maxEntries, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache =
+            CaffeineCacheMetrics.monitor(
+                meterRegistry,
+                Caffeine.newBuilder().maximumSize(maxEntries).expireAfter(new UntilTokenExpiry()).recordStats().<String, Jwt>build(),
+                CACHE_NAME
+            );
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String digest = digest(token);
+        Jwt jwt = cache.getIfPresent(digest);
+        if (jwt != null) {
+            return jwt;
+        }
+        jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null) {
+            cache.put(digest, jwt);
+        }
+        return jwt;
+    }
+
+    /**
+     * Forget a token, so that its next use is verified again.
+     *
+     * @param token the token.
+     */
+    public void evict(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), jwt.getExpiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
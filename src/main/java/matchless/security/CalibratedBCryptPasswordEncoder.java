@@ -0,0 +1,107 @@
+package matchless.security;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * A BCrypt {@link PasswordEncoder} whose cost is chosen by benchmarking the host, so that a hash takes about a target
+ * time, and which asks for stored hashes of any other cost to be re-encoded.
+ * <p>
+ * Hashes keep the plain {@code $2a$} format, so they fit the {@code password_hash} column and hashes of any cost keep
+ * matching. Re-encoding happens on the next successful login, through the
+ * {@link org.springframework.security.core.userdetails.UserDetailsPasswordService} of
+ * {@link DomainUserDetailsService}, and only for hashes more than one step away from the cost: hosts, or restarts of
+ * one host, calibrating one step apart do not keep re-encoding each other's hashes. Set the cost explicitly to get the
+ * same one everywhere.
+ */
+public class CalibratedBCryptPasswordEncoder implements PasswordEncoder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CalibratedBCryptPasswordEncoder.class);
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    private static final int BENCHMARK_STRENGTH = 8;
+
+    private static final int WARM_UP_RUNS = 5;
+
+    private static final int BENCHMARK_RUNS = 5;
+
+    /**
+     * Stored hashes of a cost this close to the current one are left as they are.
+     */
+    private static final int UPGRADE_TOLERANCE = 1;
+
+    private final int strength;
+
+    private final BCryptPasswordEncoder delegate;
+
+    /**
+     * @param strength the cost to use.
+     */
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        this.strength = strength;
+        this.delegate = new BCryptPasswordEncoder(strength);
+    }
+
+    /**
+     * Create an encoder whose hashes take about the target time on this host.
+     *
+     * @param targetMillis the wanted duration of a hash.
+     * @param minStrength the lowest acceptable cost.
+     * @param maxStrength the highest acceptable cost.
+     * @return the encoder.
+     */
+    public static CalibratedBCryptPasswordEncoder calibrate(long targetMillis, int minStrength, int maxStrength) {
+        int strength = Math.max(minStrength, Math.min(maxStrength, strengthFor(targetMillis)));
+        LOG.info("Using BCrypt cost {} for a target of {} ms per password hash", strength, targetMillis);
+        return new CalibratedBCryptPasswordEncoder(strength);
+    }
+
+    /**
+     * Each increment of the cost doubles the work, so time a cheap cost and extrapolate, once the JIT has compiled it.
+     */
+    private static int strengthFor(long targetMillis) {
+        BCryptPasswordEncoder benchmark = new BCryptPasswordEncoder(BENCHMARK_STRENGTH);
+        for (int i = 0; i < WARM_UP_RUNS; i++) {
+            benchmark.encode("warm-up");
+        }
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < BENCHMARK_RUNS; i++) {
+            long start = System.nanoTime();
+            benchmark.encode("calibration");
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+        double doublings = Math.log((double) targetMillis * 1_000_000 / Math.max(1, bestNanos)) / Math.log(2);
+        return BENCHMARK_STRENGTH + (int) Math.floor(doublings);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    /**
+     * @return {@code true} if the hash is a BCrypt hash of a cost more than one step higher or lower.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        return matcher.matches() && Math.abs(Integer.parseInt(matcher.group(1)) - strength) > UPGRADE_TOLERANCE;
+    }
+}
@@ -4,44 +4,98 @@ import java.util.*;
 import matchless.domain.Authority;
 import matchless.domain.User;
 import matchless.repository.UserRepository;
+import matchless.security.AuthenticationPhaseTimers.Phase;
 import org.hibernate.validator.internal.constraintvalidators.hv.EmailValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
- * Authenticate a user from the database.
+ * Authenticate a user from the database, and re-encode the stored password of a user when the password encoder asks
+ * for it.
  */
 @Component("userDetailsService")
-public class DomainUserDetailsService implements UserDetailsService {
+public class DomainUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final Logger log = LoggerFactory.getLogger(DomainUserDetailsService.class);
 
+    private final UserLookupGuard userLookupGuard;
+
+    private final AuthenticationPhaseTimers authenticationPhaseTimers;
+
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final CacheManager cacheManager;
+
+    public DomainUserDetailsService(
+        UserLookupGuard userLookupGuard,
+        AuthenticationPhaseTimers authenticationPhaseTimers,
+        UserRepository userRepository,
+        CacheManager cacheManager
+    ) {
+        this.userLookupGuard = userLookupGuard;
+        this.authenticationPhaseTimers = authenticationPhaseTimers;
         this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public UserDetails loadUserByUsername(final String login) {
         log.debug("Authenticating {}", login);
+        return authenticationPhaseTimers.record(Phase.USER_LOOKUP, () -> findUser(login));
+    }
+
+    /**
+     * Store the password of a user hashed again, called after a successful login when the stored hash was made with
+     * other parameters than the current ones.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        userRepository
+            .findOneByLogin(userDetails.getUsername())
+            .ifPresent(user -> {
+                log.debug("Re-encoding the password of {}", user.getLogin());
+                user.setPassword(newPassword);
+                String login = user.getLogin();
+                String email = user.getEmail();
+                // Evicted once committed, so that a concurrent lookup cannot cache the old hash again in between
+                TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(login);
+                            if (email != null) {
+                                Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(email);
+                            }
+                        }
+                    }
+                );
+            });
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails).password(newPassword).build();
+    }
 
+    private UserDetails findUser(String login) {
         if (new EmailValidator().isValid(login, null)) {
-            return userRepository
-                .findOneWithAuthoritiesByEmailIgnoreCase(login)
+            return userLookupGuard
+                .findOneWithAuthoritiesByEmail(login)
                 .map(user -> createSpringSecurityUser(login, user))
                 .orElseThrow(() -> new UsernameNotFoundException("User with email " + login + " was not found in the database"));
         }
 
         String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
-        return userRepository
+        return userLookupGuard
             .findOneWithAuthoritiesByLogin(lowercaseLogin)
             .map(user -> createSpringSecurityUser(lowercaseLogin, user))
             .orElseThrow(() -> new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database"));
@@ -0,0 +1,72 @@
+package matchless.security;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Converts the authorities claim of a {@link Jwt} like
+ * {@link org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter} without a
+ * prefix, but parses each distinct claim value only once.
+ * <p>
+ * Tokens carry one of a handful of authority combinations, so the immutable authorities parsed from a claim value are
+ * kept and shared by every later token with the same value: converting the authorities of a request allocates
+ * nothing. At most {@code maxEntries} claim values are kept; others are parsed on each use.
+ */
+public class InternedAuthoritiesConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+
+    private final String authoritiesClaimName;
+
+    private final int maxEntries;
+
+    private final Map<Object, List<GrantedAuthority>> authoritiesByClaim = new ConcurrentHashMap<>();
+
+    /**
+     * @param authoritiesClaimName the name of the claim holding the authorities, as a space separated string or a
+     * collection of strings.
+     * @param maxEntries the maximum number of distinct claim values to keep.
+     */
+    public InternedAuthoritiesConverter(String authoritiesClaimName, int maxEntries) {
+        this.authoritiesClaimName = authoritiesClaimName;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public Collection<GrantedAuthority> convert(Jwt jwt) {
+        Object claim = jwt.getClaims().get(authoritiesClaimName);
+        if (claim == null) {
+            return List.of();
+        }
+        List<GrantedAuthority> authorities = authoritiesByClaim.get(claim);
+        if (authorities != null) {
+            return authorities;
+        }
+        authorities = parse(claim);
+        if (authoritiesByClaim.size() < maxEntries) {
+            authoritiesByClaim.putIfAbsent(claim, authorities);
+        }
+        return authorities;
+    }
+
+    private static List<GrantedAuthority> parse(Object claim) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        if (claim instanceof String value) {
+            for (String authority : value.split(" ")) {
+                if (!authority.isBlank()) {
+                    authorities.add(new SimpleGrantedAuthority(authority));
+                }
+            }
+        } else if (claim instanceof Collection<?> values) {
+            for (Object authority : values) {
+                authorities.add(new SimpleGrantedAuthority(authority.toString()));
+            }
+        }
+        return List.copyOf(authorities);
+    }
+}
@@ -0,0 +1,142 @@
+package matchless.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import matchless.config.ApplicationProperties;
+import matchless.management.SecurityMetersService;
+
+/**
+ * Limits the login attempts per login and per remote address, before their credentials are verified.
+ * <p>
+ * Behind a proxy, the remote address is only the client's if {@code server.forward-headers-strategy} is set, as it is in
+ * the {@code prod} profile; otherwise every client shares the address of the proxy, and its budget.
+ * <p>
+ * Each key has a sliding window counter: the count of the current window plus the count of the previous window
+ * weighted by its remaining overlap. The state of a counter is packed in a single {@link AtomicLong} and updated by
+ * compare-and-set, so attempts never block each other.
+ * <p>
+ * Counters are held in size-bounded Caffeine caches, one per kind of key, so that a flood of spoofed addresses or
+ * random logins can not grow them without limit, nor evict the counters of the logins under attack: the admission
+ * policy of Caffeine keeps frequently used keys over one-off ones.
+ */
+public class LoginThrottle {
+
+    public static final String BY_LOGIN_CACHE_NAME = "loginThrottleByLogin";
+
+    public static final String BY_ADDRESS_CACHE_NAME = "loginThrottleByAddress";
+
+    private final boolean enabled;
+
+    private final int maxAttemptsPerLogin;
+
+    private final int maxAttemptsPerAddress;
+
+    private final long windowMillis;
+
+    private final Cache<String, SlidingWindowCounter> byLogin;
+
+    private final Cache<String, SlidingWindowCounter> byAddress;
+
+    private final SecurityMetersService metersService;
+
+    private final LongSupplier clock;
+
+    public LoginThrottle(ApplicationProperties.LoginThrottle properties, SecurityMetersService metersService, MeterRegistry meterRegistry) {
+        this(properties, metersService, meterRegistry, System::currentTimeMillis);
+    }
+
+    LoginThrottle(
+        ApplicationProperties.LoginThrottle properties,
+        SecurityMetersService metersService,
+        MeterRegistry meterRegistry,
+        LongSupplier clock
+    ) {
+        this.enabled = properties.isEnabled();
+        this.maxAttemptsPerLogin = Math.min(properties.getMaxAttemptsPerLogin(), SlidingWindowCounter.MAX_COUNT);
+        this.maxAttemptsPerAddress = Math.min(properties.getMaxAttemptsPerAddress(), SlidingWindowCounter.MAX_COUNT);
+        this.windowMillis = Duration.ofSeconds(properties.getWindowSeconds()).toMillis();
+        this.byLogin = CaffeineCacheMetrics.monitor(meterRegistry, counters(properties), BY_LOGIN_CACHE_NAME);
+        this.byAddress = CaffeineCacheMetrics.monitor(meterRegistry, counters(properties), BY_ADDRESS_CACHE_NAME);
+        this.metersService = metersService;
+        this.clock = clock;
+    }
+
+    private static Cache<String, SlidingWindowCounter> counters(ApplicationProperties.LoginThrottle properties) {
+        return Caffeine
+            .newBuilder()
+            .maximumSize(properties.getMaxKeys())
+            .expireAfterAccess(Duration.ofSeconds(2 * properties.getWindowSeconds()))
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Count a login attempt, or refuse it if the login or the address is over its budget.
+     *
+     * @param login the login, or email, the attempt is for.
+     * @param remoteAddress the address the attempt comes from.
+     * @throws AuthenticationThrottledException if the attempt is refused.
+     */
+    public void acquire(String login, String remoteAddress) {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.getAsLong();
+        if (remoteAddress != null && !counter(byAddress, remoteAddress).tryIncrement(now, windowMillis, maxAttemptsPerAddress)) {
+            metersService.trackLoginThrottledByAddress();
+            throw throttled();
+        }
+        if (login != null && !counter(byLogin, login.toLowerCase(Locale.ENGLISH)).tryIncrement(now, windowMillis, maxAttemptsPerLogin)) {
+            metersService.trackLoginThrottledByLogin();
+            throw throttled();
+        }
+    }
+
+    private static SlidingWindowCounter counter(Cache<String, SlidingWindowCounter> counters, String key) {
+        return counters.get(key, k -> new SlidingWindowCounter());
+    }
+
+    private AuthenticationThrottledException throttled() {
+        return new AuthenticationThrottledException("Too many login attempts", Math.max(1, windowMillis / 1000));
+    }
+
+    /**
+     * A sliding window counter packed as: window index (32 bits), current count (16 bits), previous count (16 bits).
+     */
+    static final class SlidingWindowCounter {
+
+        static final int MAX_COUNT = 0xFFFF;
+
+        private static final long WINDOW_MASK = 0xFFFF_FFFFL;
+
+        private final AtomicLong state = new AtomicLong();
+
+        boolean tryIncrement(long now, long windowMillis, int limit) {
+            long window = (now / windowMillis) & WINDOW_MASK;
+            double previousWeight = 1 - (double) (now % windowMillis) / windowMillis;
+            while (true) {
+                long current = state.get();
+                long currentWindow = current >>> 32;
+                int currentCount = (int) ((current >>> 16) & MAX_COUNT);
+                int previousCount = (int) (current & MAX_COUNT);
+                if (currentWindow != window) {
+                    previousCount = currentWindow == ((window - 1) & WINDOW_MASK) ? currentCount : 0;
+                    currentCount = 0;
+                }
+                if (currentCount + previousCount * previousWeight >= limit) {
+                    return false;
+                }
+                long next = (window << 32) | ((long) (currentCount + 1) << 16) | previousCount;
+                if (state.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package matchless.security;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -20,6 +21,11 @@ public final class SecurityUtils {
 
     public static final String AUTHORITIES_KEY = "auth";
 
+    /**
+     * The clock skew allowed when validating the expiry of a JWT: a token is accepted until this long after it expires.
+     */
+    public static final Duration JWT_CLOCK_SKEW = Duration.ofSeconds(60);
+
     private SecurityUtils() {}
 
     /**
@@ -0,0 +1,35 @@
+package matchless.security;
+
+import matchless.security.AuthenticationPhaseTimers.Phase;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * A {@link PasswordEncoder} that times the hashing of its delegate, see {@link AuthenticationPhaseTimers}. Passwords
+ * that do not match are recorded as failures.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    private final AuthenticationPhaseTimers timers;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, AuthenticationPhaseTimers timers) {
+        this.delegate = delegate;
+        this.timers = timers;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return timers.record(Phase.PASSWORD_ENCODE, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return timers.record(Phase.PASSWORD_MATCH, () -> delegate.matches(rawPassword, encodedPassword), Boolean::booleanValue);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
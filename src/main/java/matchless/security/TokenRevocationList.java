@@ -0,0 +1,115 @@
+package matchless.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import matchless.cache.BloomFilter;
+
+/**
+ * The identifiers ({@code jti}) of revoked tokens that have not expired yet.
+ * <p>
+ * Revoked identifiers are grouped in buckets by the expiry of their token. Each bucket has a Bloom filter, which
+ * answers the common "not revoked" case from a few bits, and an exact set that removes the false positives of the
+ * filter. Since the expiry of a token is signed along with its identifier, a check only looks at one bucket, and a
+ * bucket is dropped as a whole once all its tokens have expired, and the clock skew allowed past their expiry has
+ * elapsed: checks are O(1) and memory follows the number of live revoked tokens.
+ */
+public class TokenRevocationList {
+
+    private final long bucketMillis;
+
+    private final long expectedRevocationsPerBucket;
+
+    private final double falsePositiveProbability;
+
+    private final Duration clockSkew;
+
+    private final Map<Long, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param bucketDuration the range of token expiries sharing a bucket.
+     * @param expectedRevocationsPerBucket the number of identifiers each Bloom filter is sized for.
+     * @param falsePositiveProbability the false positive probability of the Bloom filters, when not over capacity.
+     * @param clockSkew how long after their expiry tokens are still accepted.
+     */
+    public TokenRevocationList(
+        Duration bucketDuration,
+        long expectedRevocationsPerBucket,
+        double falsePositiveProbability,
+        Duration clockSkew
+    ) {
+        this.bucketMillis = bucketDuration.toMillis();
+        this.expectedRevocationsPerBucket = expectedRevocationsPerBucket;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.clockSkew = clockSkew;
+    }
+
+    /**
+     * @param tokenId the identifier of the token.
+     * @param expiresAt the expiry of the token.
+     */
+    public void revoke(String tokenId, Instant expiresAt) {
+        buckets.computeIfAbsent(bucketOf(expiresAt), index -> newBucket()).add(tokenId);
+    }
+
+    /**
+     * @param tokenId the identifier of the token.
+     * @param expiresAt the expiry of the token.
+     * @return {@code true} if the token has been revoked.
+     */
+    public boolean isRevoked(String tokenId, Instant expiresAt) {
+        if (buckets.isEmpty()) {
+            return false;
+        }
+        Bucket bucket = buckets.get(bucketOf(expiresAt));
+        return bucket != null && bucket.contains(tokenId);
+    }
+
+    /**
+     * Drop the buckets whose tokens are no longer accepted, even with the clock skew.
+     *
+     * @param now the current time.
+     */
+    public void purge(Instant now) {
+        long currentBucket = bucketOf(now.minus(clockSkew));
+        buckets.keySet().removeIf(index -> index < currentBucket);
+    }
+
+    /**
+     * @return the number of revoked identifiers held.
+     */
+    public long size() {
+        return buckets.values().stream().mapToLong(bucket -> bucket.tokenIds.size()).sum();
+    }
+
+    private Bucket newBucket() {
+        return new Bucket(BloomFilter.create(expectedRevocationsPerBucket, falsePositiveProbability));
+    }
+
+    private long bucketOf(Instant instant) {
+        return Math.floorDiv(instant.toEpochMilli(), bucketMillis);
+    }
+
+    private static final class Bucket {
+
+        private final BloomFilter filter;
+
+        private final Set<String> tokenIds = ConcurrentHashMap.newKeySet();
+
+        private Bucket(BloomFilter filter) {
+            this.filter = filter;
+        }
+
+        private void add(String tokenId) {
+            // Exact set first, so that a concurrent check passing the filter finds the identifier
+            tokenIds.add(tokenId);
+            filter.put(tokenId);
+        }
+
+        private boolean contains(String tokenId) {
+            return filter.mightContain(tokenId) && tokenIds.contains(tokenId);
+        }
+    }
+}
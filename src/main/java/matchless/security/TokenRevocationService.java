@@ -0,0 +1,100 @@
+package matchless.security;
+
+import static matchless.security.SecurityUtils.JWT_CLOCK_SKEW;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import matchless.domain.RevokedToken;
+import matchless.repository.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Revokes JWTs before their expiry, for instance on logout.
+ * <p>
+ * Revoked token identifiers are stored in the database, and held in memory by the {@link TokenRevocationList} checked
+ * by the JWT decoder, so that checking a request does not query the database. The list is loaded at startup, then
+ * synchronized periodically with the identifiers revoked by other instances.
+ */
+@Component
+public class TokenRevocationService {
+
+    /**
+     * Overlap of successive synchronizations, for clocks out of step and revocations committed after their timestamp.
+     */
+    private static final Duration SYNCHRONIZATION_OVERLAP = Duration.ofMinutes(1);
+
+    private final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final TokenRevocationList tokenRevocationList;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private volatile Instant lastSynchronization;
+
+    public TokenRevocationService(TokenRevocationList tokenRevocationList, RevokedTokenRepository revokedTokenRepository) {
+        this.tokenRevocationList = tokenRevocationList;
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    /**
+     * Revoke a token until its expiry.
+     *
+     * @param jwt the token.
+     */
+    @Transactional
+    public void revoke(Jwt jwt) {
+        if (jwt.getId() == null || jwt.getExpiresAt() == null || jwt.getExpiresAt().plus(JWT_CLOCK_SKEW).isBefore(Instant.now())) {
+            log.debug("Not revoking token of {}, which has no identifier or has expired", jwt.getSubject());
+            return;
+        }
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setTokenId(jwt.getId());
+        revokedToken.setExpiresAt(jwt.getExpiresAt());
+        revokedToken.setRevokedAt(Instant.now());
+        revokedTokenRepository.save(revokedToken);
+        tokenRevocationList.revoke(jwt.getId(), jwt.getExpiresAt());
+        log.debug("Revoked token {} of {}", jwt.getId(), jwt.getSubject());
+    }
+
+    /**
+     * Add the tokens revoked since the last synchronization, by any instance, to the in-memory list, and drop the
+     * expired ones from it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+        initialDelayString = "${application.token-revocation.synchronize-interval-seconds:30}",
+        fixedDelayString = "${application.token-revocation.synchronize-interval-seconds:30}",
+        timeUnit = TimeUnit.SECONDS
+    )
+    @Transactional(readOnly = true)
+    public void synchronize() {
+        Instant now = Instant.now();
+        Instant since = lastSynchronization;
+        Instant acceptedExpiry = now.minus(JWT_CLOCK_SKEW);
+        List<RevokedToken> revokedTokens = since == null
+            ? revokedTokenRepository.findAllByExpiresAtAfter(acceptedExpiry)
+            : revokedTokenRepository.findAllByRevokedAtAfterAndExpiresAtAfter(since.minus(SYNCHRONIZATION_OVERLAP), acceptedExpiry);
+        revokedTokens.forEach(revokedToken -> tokenRevocationList.revoke(revokedToken.getTokenId(), revokedToken.getExpiresAt()));
+        tokenRevocationList.purge(now);
+        lastSynchronization = now;
+    }
+
+    /**
+     * Expired revoked tokens are deleted every day, at 02:30 (am).
+     */
+    @Scheduled(cron = "0 30 2 * * ?")
+    @Transactional
+    public void removeExpiredTokens() {
+        int removed = revokedTokenRepository.deleteAllByExpiresAtBefore(Instant.now().minus(JWT_CLOCK_SKEW));
+        log.debug("Deleted {} expired revoked tokens", removed);
+    }
+}
@@ -0,0 +1,240 @@
+package matchless.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import matchless.cache.BloomFilter;
+import matchless.cache.SingleFlight;
+import matchless.config.ApplicationProperties;
+import matchless.domain.Authority;
+import matchless.domain.User;
+import matchless.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Guards the cached lookups of users by login and by email.
+ * <p>
+ * Logins and emails that do not exist are short-circuited, so that credential-stuffing traffic with random usernames
+ * does not reach the database. Two layers are consulted: a bounded negative cache of recent misses with a short time
+ * to live, and a Bloom filter of every known login and email. The filter is built by a scheduled task and only answers
+ * once it has been built, so lookups fall through to the database until then. Users written after a build are added
+ * to the current filter by {@link #userChanged(User)}, and replayed into the next one so a rebuild racing with a
+ * registration cannot lose it.
+ * <p>
+ * Misses of the {@link UserRepository#USERS_BY_LOGIN_CACHE} and {@link UserRepository#USERS_BY_EMAIL_CACHE} caches are
+ * coalesced, so that concurrent requests for an evicted user share a single query; each of them gets its own detached
+ * copy of the user loaded.
+ */
+@Component
+public class UserLookupGuard {
+
+    private final Logger log = LoggerFactory.getLogger(UserLookupGuard.class);
+
+    private final UserRepository userRepository;
+
+    private final CacheManager cacheManager;
+
+    private final ApplicationProperties.UserLookup properties;
+
+    private final SingleFlight<String, Optional<User>> loginLoads;
+
+    private final SingleFlight<String, Optional<User>> emailLoads;
+
+    private final Cache<String, Boolean> missingKeys;
+
+    private final Map<String, Long> recentlyChanged = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter knownKeys;
+
+    public UserLookupGuard(
+        UserRepository userRepository,
+        CacheManager cacheManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
+        this.properties = applicationProperties.getUserLookup();
+        this.loginLoads =
+            new SingleFlight<>(UserRepository.USERS_BY_LOGIN_CACHE, meterRegistry, user -> user.map(UserLookupGuard::copyOf));
+        this.emailLoads =
+            new SingleFlight<>(UserRepository.USERS_BY_EMAIL_CACHE, meterRegistry, user -> user.map(UserLookupGuard::copyOf));
+        this.missingKeys =
+            Caffeine
+                .newBuilder()
+                .maximumSize(properties.getNegativeMaxEntries())
+                .expireAfterWrite(Duration.ofSeconds(properties.getNegativeTimeToLiveSeconds()))
+                .build();
+    }
+
+    /**
+     * Find a user with its authorities by login.
+     *
+     * @param login the lowercase login.
+     * @return the user, or empty if no user has this login.
+     */
+    public Optional<User> findOneWithAuthoritiesByLogin(String login) {
+        return find(login, UserRepository.USERS_BY_LOGIN_CACHE, loginLoads, userRepository::findOneWithAuthoritiesByLogin);
+    }
+
+    /**
+     * Find a user with its authorities by email, ignoring case.
+     *
+     * @param email the email.
+     * @return the user, or empty if no user has this email.
+     */
+    public Optional<User> findOneWithAuthoritiesByEmail(String email) {
+        return find(email, UserRepository.USERS_BY_EMAIL_CACHE, emailLoads, userRepository::findOneWithAuthoritiesByEmailIgnoreCase);
+    }
+
+    private Optional<User> find(
+        String key,
+        String cacheName,
+        SingleFlight<String, Optional<User>> loads,
+        Function<String, Optional<User>> lookup
+    ) {
+        if (isKnownMissing(key)) {
+            return Optional.empty();
+        }
+        org.springframework.cache.Cache cache = cacheManager.getCache(cacheName);
+        User cachedUser = cache != null ? cache.get(key, User.class) : null;
+        if (cachedUser != null) {
+            return Optional.of(cachedUser);
+        }
+        Optional<User> user = loads.load(key, () -> lookup.apply(key));
+        if (user.isEmpty()) {
+            recordMissing(key);
+        }
+        return user;
+    }
+
+    private boolean isKnownMissing(String key) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        String normalizedKey = normalize(key);
+        if (missingKeys.getIfPresent(normalizedKey) != null) {
+            return true;
+        }
+        BloomFilter filter = knownKeys;
+        return filter != null && !filter.mightContain(normalizedKey);
+    }
+
+    private void recordMissing(String key) {
+        if (properties.isEnabled()) {
+            missingKeys.put(normalize(key), Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Make the login and email of a created, registered or updated user visible to lookups again.
+     *
+     * @param user the user that was written.
+     */
+    public void userChanged(User user) {
+        register(user.getLogin());
+        register(user.getEmail());
+    }
+
+    private void register(String key) {
+        if (key == null) {
+            return;
+        }
+        String normalizedKey = normalize(key);
+        // Record before reading the filter: a rebuild swapping filters either sees this entry or is seen by the read.
+        recentlyChanged.put(normalizedKey, System.nanoTime());
+        BloomFilter filter = knownKeys;
+        if (filter != null) {
+            filter.put(normalizedKey);
+        }
+        missingKeys.invalidate(normalizedKey);
+    }
+
+    /**
+     * Rebuild the Bloom filter from the database, which also drops logins and emails of deleted users.
+     */
+    @Scheduled(
+        initialDelayString = "${application.user-lookup.initial-build-delay-seconds:30}",
+        fixedDelayString = "${application.user-lookup.rebuild-interval-seconds:600}",
+        timeUnit = TimeUnit.SECONDS
+    )
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        long userCount = userRepository.count();
+        if (userCount == 0) {
+            log.debug("No users yet, not building the known users filter");
+            return;
+        }
+        BloomFilter filter = BloomFilter.create(
+            Math.max(properties.getExpectedUsers(), userCount * 2),
+            properties.getFalsePositiveProbability()
+        );
+        try (Stream<String> logins = userRepository.streamAllLogins()) {
+            logins.map(this::normalize).forEach(filter::put);
+        }
+        try (Stream<String> emails = userRepository.streamAllEmails()) {
+            emails.forEach(filter::put);
+        }
+        recentlyChanged.keySet().forEach(filter::put);
+        knownKeys = filter;
+        // Second pass for keys registered while the filter was being built, then forget the ones it now contains.
+        recentlyChanged.forEach((key, changedAt) -> {
+            if (changedAt - startedAt >= 0) {
+                filter.put(key);
+            }
+        });
+        recentlyChanged.values().removeIf(changedAt -> changedAt - startedAt < 0);
+        log.debug("Built known users filter for {} users ({} bits, {} hashes)", userCount, filter.bitCount(), filter.hashCount());
+    }
+
+    private String normalize(String key) {
+        return key.toLowerCase(Locale.ENGLISH);
+    }
+
+    private static User copyOf(User user) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setLogin(user.getLogin());
+        copy.setPassword(user.getPassword());
+        copy.setFirstName(user.getFirstName());
+        copy.setLastName(user.getLastName());
+        copy.setEmail(user.getEmail());
+        copy.setActivated(user.isActivated());
+        copy.setLangKey(user.getLangKey());
+        copy.setImageUrl(user.getImageUrl());
+        copy.setActivationKey(user.getActivationKey());
+        copy.setResetKey(user.getResetKey());
+        copy.setResetDate(user.getResetDate());
+        copy.setCreatedBy(user.getCreatedBy());
+        copy.setCreatedDate(user.getCreatedDate());
+        copy.setLastModifiedBy(user.getLastModifiedBy());
+        copy.setLastModifiedDate(user.getLastModifiedDate());
+        Set<Authority> authorities = new HashSet<>();
+        for (Authority authority : user.getAuthorities()) {
+            Authority authorityCopy = new Authority();
+            authorityCopy.setName(authority.getName());
+            authorities.add(authorityCopy);
+        }
+        copy.setAuthorities(authorities);
+        return copy;
+    }
+}
@@ -0,0 +1,34 @@
+package matchless.security;
+
+import matchless.domain.User;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@link UserLookupGuard} in step with users saved directly through the
+ * {@link matchless.repository.UserRepository}, not only those written by {@link matchless.service.UserService}.
+ */
+@Aspect
+@Component
+public class UserLookupGuardAspect {
+
+    private final UserLookupGuard userLookupGuard;
+
+    public UserLookupGuardAspect(UserLookupGuard userLookupGuard) {
+        this.userLookupGuard = userLookupGuard;
+    }
+
+    @AfterReturning(pointcut = "this(matchless.repository.UserRepository) && execution(* save*(..))", returning = "result")
+    public void afterSave(Object result) {
+        if (result instanceof User user) {
+            userLookupGuard.userChanged(user);
+        } else if (result instanceof Iterable<?> users) {
+            users.forEach(user -> {
+                if (user instanceof User savedUser) {
+                    userLookupGuard.userChanged(savedUser);
+                }
+            });
+        }
+    }
+}
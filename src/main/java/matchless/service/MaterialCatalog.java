@@ -0,0 +1,609 @@
+package matchless.service;
+
+import com.carrotsearch.hppc.LongHashSet;
+import com.carrotsearch.hppc.LongLongHashMap;
+import com.carrotsearch.hppc.LongObjectHashMap;
+import com.carrotsearch.hppc.cursors.LongCursor;
+import com.carrotsearch.hppc.cursors.LongLongCursor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import matchless.config.ApplicationProperties;
+import matchless.domain.Material;
+import matchless.domain.MaterialMethod;
+import matchless.repository.MaterialMethodRepository;
+import matchless.repository.MaterialRepository;
+import matchless.service.event.EntityChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Serves reads of {@link Material} and {@link MaterialMethod} from an immutable in-memory snapshot of both tables.
+ * <p>
+ * The snapshot is loaded by a scheduled task, which also refreshes it periodically, and is kept coherent with the
+ * database by re-reading the entities of each {@link EntityChangedEvent} once its transaction has committed. The
+ * commit only marks the changed rows dirty: they are re-read on the {@code taskExecutor} and applied to a copy of the
+ * snapshot that is then swapped in, so readers never lock and never see a partial update, and the committing request
+ * neither waits for the re-read nor holds a second connection for it. Until then, reads of dirty rows, and pages and
+ * lists of their entity, are delegated to {@link MaterialService} and {@link MaterialMethodService}, as are all reads
+ * until the first load, after a failed update, or when disabled, and pages sorted by anything but the id.
+ * <p>
+ * Snapshot rows are detached copies shaped as the REST API serializes entities: lazy collections are left out, and
+ * references to other entities only carry their id. They are shared between readers and must not be modified.
+ */
+@Service
+public class MaterialCatalog {
+
+    public static final String ENTRIES_METER_NAME = "catalog.entries";
+
+    private final Logger log = LoggerFactory.getLogger(MaterialCatalog.class);
+
+    private final MaterialRepository materialRepository;
+
+    private final MaterialMethodRepository materialMethodRepository;
+
+    private final MaterialService materialService;
+
+    private final MaterialMethodService materialMethodService;
+
+    private final ApplicationProperties.Catalog properties;
+
+    private final TransactionTemplate readTransaction;
+
+    private final Executor taskExecutor;
+
+    private final Lock updateLock = new ReentrantLock();
+
+    private final Lock dirtyLock = new ReentrantLock();
+
+    private final AtomicBoolean updateScheduled = new AtomicBoolean();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Rows changed by committed transactions and not yet applied to the snapshot. Replaced under {@link #dirtyLock}.
+     */
+    private volatile DirtyRows dirtyRows = DirtyRows.NONE;
+
+    /**
+     * Sequence of the commits marking rows dirty. Guarded by {@link #dirtyLock}.
+     */
+    private long commitSequence;
+
+    /**
+     * Changes committed while a refresh is loading, replayed once it is swapped in. Guarded by {@link #dirtyLock}.
+     */
+    private PendingChanges changedDuringRefresh;
+
+    public MaterialCatalog(
+        MaterialRepository materialRepository,
+        MaterialMethodRepository materialMethodRepository,
+        MaterialService materialService,
+        MaterialMethodService materialMethodService,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        @Qualifier("taskExecutor") Executor taskExecutor
+    ) {
+        this.materialRepository = materialRepository;
+        this.materialMethodRepository = materialMethodRepository;
+        this.materialService = materialService;
+        this.materialMethodService = materialMethodService;
+        this.properties = applicationProperties.getCatalog();
+        this.taskExecutor = taskExecutor;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        Gauge
+            .builder(ENTRIES_METER_NAME, this, catalog -> catalog.size(Snapshot::materials))
+            .description("Rows held by the in-memory material catalog")
+            .tag("entity", Material.class.getSimpleName())
+            .register(meterRegistry);
+        Gauge
+            .builder(ENTRIES_METER_NAME, this, catalog -> catalog.size(Snapshot::materialMethods))
+            .description("Rows held by the in-memory material catalog")
+            .tag("entity", MaterialMethod.class.getSimpleName())
+            .register(meterRegistry);
+    }
+
+    private double size(Function<Snapshot, Table<?>> table) {
+        Snapshot current = snapshot;
+        return current != null ? table.apply(current).rows().size() : 0;
+    }
+
+    /**
+     * @return {@code true} if reads are served from the catalog.
+     */
+    public boolean isAvailable() {
+        return currentSnapshot() != null;
+    }
+
+    /**
+     * Get one material by id, from the catalog if it is available.
+     *
+     * @param id the id of the entity.
+     * @return the entity.
+     */
+    public Optional<Material> findMaterial(Long id) {
+        Snapshot current = currentSnapshot();
+        return current != null && !dirtyRows.materialIds().containsKey(id)
+            ? Optional.ofNullable(current.materials().rows().get(id))
+            : materialService.findOne(id);
+    }
+
+    /**
+     * Get a page of materials, from the catalog if it is available and the page is sorted by id.
+     *
+     * @param pageable the pagination information.
+     * @return the page of entities.
+     */
+    public Page<Material> findAllMaterials(Pageable pageable) {
+        Snapshot current = currentSnapshot();
+        return current != null && dirtyRows.materialIds().isEmpty() && isSortedById(pageable)
+            ? current.materials().page(pageable)
+            : materialService.findAll(pageable);
+    }
+
+    /**
+     * Get the materials with the given ids, from the catalog if it is available.
+     *
+     * @param ids the ids of the entities, without duplicates.
+     * @return the entities that exist, in the order of {@code ids}.
+     */
+    public List<Material> findMaterials(List<Long> ids) {
+        Snapshot current = currentSnapshot();
+        return current != null && dirtyRows.materialIds().isEmpty() ? current.materials().rows(ids) : materialService.findAllById(ids);
+    }
+
+    /**
+     * Get one materialMethod by id, from the catalog if it is available.
+     *
+     * @param id the id of the entity.
+     * @return the entity.
+     */
+    public Optional<MaterialMethod> findMaterialMethod(Long id) {
+        Snapshot current = currentSnapshot();
+        return current != null && !dirtyRows.materialMethodIds().containsKey(id)
+            ? Optional.ofNullable(current.materialMethods().rows().get(id))
+            : materialMethodService.findOne(id);
+    }
+
+    /**
+     * Get a page of materialMethods, from the catalog if it is available and the page is sorted by id.
+     *
+     * @param pageable the pagination information.
+     * @return the page of entities.
+     */
+    public Page<MaterialMethod> findAllMaterialMethods(Pageable pageable) {
+        Snapshot current = currentSnapshot();
+        return current != null && dirtyRows.materialMethodIds().isEmpty() && isSortedById(pageable)
+            ? current.materialMethods().page(pageable)
+            : materialMethodService.findAll(pageable);
+    }
+
+    /**
+     * Get the materialMethods with the given ids, from the catalog if it is available.
+     *
+     * @param ids the ids of the entities, without duplicates.
+     * @return the entities that exist, in the order of {@code ids}.
+     */
+    public List<MaterialMethod> findMaterialMethods(List<Long> ids) {
+        Snapshot current = currentSnapshot();
+        return current != null && dirtyRows.materialMethodIds().isEmpty()
+            ? current.materialMethods().rows(ids)
+            : materialMethodService.findAllById(ids);
+    }
+
+    private Snapshot currentSnapshot() {
+        return properties.isEnabled() ? snapshot : null;
+    }
+
+    private static boolean isSortedById(Pageable pageable) {
+        return pageable.getSort().stream().allMatch(order -> "id".equals(order.getProperty()));
+    }
+
+    /**
+     * Load the whole catalog from the database, which also picks up writes that did not go through the services.
+     */
+    @Scheduled(
+        initialDelayString = "${application.catalog.initial-load-delay-seconds:30}",
+        fixedDelayString = "${application.catalog.refresh-interval-seconds:600}",
+        timeUnit = TimeUnit.SECONDS
+    )
+    public void refresh() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        dirtyLock.lock();
+        try {
+            changedDuringRefresh = new PendingChanges();
+        } finally {
+            dirtyLock.unlock();
+        }
+        Snapshot loaded = null;
+        try {
+            loaded =
+                readTransaction.execute(status ->
+                    new Snapshot(
+                        Table.of(materialRepository.findAll(), Material::getId, MaterialCatalog::copyOfMaterial),
+                        Table.of(materialMethodRepository.findAll(), MaterialMethod::getId, MaterialCatalog::copyOfMaterialMethod)
+                    )
+                );
+        } catch (RuntimeException e) {
+            log.warn("Could not load the material catalog: {}", e.getMessage());
+        }
+        PendingChanges missedChanges;
+        updateLock.lock();
+        try {
+            if (loaded != null) {
+                snapshot = loaded;
+            }
+            dirtyLock.lock();
+            try {
+                missedChanges = changedDuringRefresh;
+                changedDuringRefresh = null;
+            } finally {
+                dirtyLock.unlock();
+            }
+        } finally {
+            updateLock.unlock();
+        }
+        if (loaded != null) {
+            log.debug("Loaded material catalog: {} materials, {} methods", loaded.materials().size(), loaded.materialMethods().size());
+            apply(missedChanges);
+            // Rows left dirty by an update that could not be scheduled
+            if (!dirtyRows.isEmpty()) {
+                scheduleUpdate();
+            }
+        }
+    }
+
+    /**
+     * Collect an entity change, to be applied once its transaction has committed.
+     *
+     * @param event the entity change.
+     */
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!properties.isEnabled() || event.id() == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingChanges changes = new PendingChanges();
+            changes.add(event);
+            committed(changes);
+            return;
+        }
+        PendingChanges changes = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            PendingChanges transactionChanges = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, transactionChanges);
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    /**
+                     * Ahead of the after-commit listeners, such as the response cache eviction, so that a request
+                     * they let through does not read the snapshot before the rows are dirty.
+                     */
+                    @Override
+                    public int getOrder() {
+                        return Ordered.HIGHEST_PRECEDENCE;
+                    }
+
+                    @Override
+                    public void afterCommit() {
+                        committed(transactionChanges);
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(MaterialCatalog.this);
+                    }
+                }
+            );
+            changes = transactionChanges;
+        }
+        changes.add(event);
+    }
+
+    /**
+     * Mark the rows of committed changes dirty, and schedule an update of the snapshot applying them.
+     */
+    private void committed(PendingChanges changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        dirtyLock.lock();
+        try {
+            if (changedDuringRefresh != null) {
+                changedDuringRefresh.addAll(changes);
+            }
+            dirtyRows = dirtyRows.with(changes, ++commitSequence);
+        } finally {
+            dirtyLock.unlock();
+        }
+        scheduleUpdate();
+    }
+
+    private void scheduleUpdate() {
+        if (!updateScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            taskExecutor.execute(this::applyDirtyRows);
+        } catch (RejectedExecutionException e) {
+            // The dirty rows keep being read from the database, until the next commit or refresh schedules an update
+            updateScheduled.set(false);
+            log.warn("Could not schedule an update of the material catalog: {}", e.getMessage());
+        }
+    }
+
+    private void applyDirtyRows() {
+        // Reset first, so that rows marked dirty from now on schedule another update
+        updateScheduled.set(false);
+        DirtyRows applied = dirtyRows;
+        if (applied.isEmpty()) {
+            return;
+        }
+        try {
+            apply(applied.changes());
+        } finally {
+            dirtyLock.lock();
+            try {
+                dirtyRows = dirtyRows.without(applied);
+            } finally {
+                dirtyLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Re-read the changed rows and swap in a snapshot holding them.
+     * <p>
+     * Updates are serialized, so that a slow update cannot overwrite the rows of a later one with older data.
+     */
+    private void apply(PendingChanges changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        updateLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            snapshot =
+                readTransaction.execute(status ->
+                    new Snapshot(
+                        current
+                            .materials()
+                            .with(
+                                changes.materialIds(),
+                                materialRepository.findAllById(ids(changes.materialIds())),
+                                Material::getId,
+                                MaterialCatalog::copyOfMaterial
+                            ),
+                        current
+                            .materialMethods()
+                            .with(
+                                changes.materialMethodIds(),
+                                materialMethodRepository.findAllById(ids(changes.materialMethodIds())),
+                                MaterialMethod::getId,
+                                MaterialCatalog::copyOfMaterialMethod
+                            )
+                    )
+                );
+        } catch (RuntimeException e) {
+            // The snapshot would be stale: serve from the database until the next refresh.
+            log.warn("Could not update the material catalog, disabling it until the next refresh: {}", e.getMessage());
+            snapshot = null;
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private static List<Long> ids(LongHashSet ids) {
+        List<Long> list = new ArrayList<>(ids.size());
+        for (LongCursor id : ids) {
+            list.add(id.value);
+        }
+        return list;
+    }
+
+    static Material copyOfMaterial(Material material) {
+        // Setting the methods to null leaves them out, as an uninitialized lazy collection would be.
+        return new Material()
+            .id(material.getId())
+            .name(intern(material.getName()))
+            .description(material.getDescription())
+            .methods(null);
+    }
+
+    static MaterialMethod copyOfMaterialMethod(MaterialMethod materialMethod) {
+        MaterialMethod copy = new MaterialMethod().id(materialMethod.getId()).type(materialMethod.getType());
+        if (materialMethod.getName() != null) {
+            // Reading the id of a lazy proxy does not initialize it.
+            copy.setName(new Material().id(materialMethod.getName().getId()).methods(null));
+        }
+        return copy;
+    }
+
+    private static String intern(String value) {
+        return value != null ? value.intern() : null;
+    }
+
+    private record Snapshot(Table<Material> materials, Table<MaterialMethod> materialMethods) {}
+
+    /**
+     * The rows of an entity, by id, with their ids in ascending order for paging.
+     */
+    private record Table<T>(LongObjectHashMap<T> rows, long[] sortedIds) {
+        static <E, T> Table<T> of(Iterable<E> entities, ToLongFunction<E> id, Function<E, T> copy) {
+            LongObjectHashMap<T> rows = new LongObjectHashMap<>();
+            entities.forEach(entity -> rows.put(id.applyAsLong(entity), copy.apply(entity)));
+            return new Table<>(rows, sortedIds(rows));
+        }
+
+        List<T> rows(List<Long> ids) {
+            List<T> found = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                T row = rows.get(id);
+                if (row != null) {
+                    found.add(row);
+                }
+            }
+            return found;
+        }
+
+        <E> Table<T> with(LongHashSet changedIds, Iterable<E> changedEntities, ToLongFunction<E> id, Function<E, T> copy) {
+            if (changedIds.isEmpty()) {
+                return this;
+            }
+            LongObjectHashMap<T> changedRows = rows.clone();
+            for (LongCursor changedId : changedIds) {
+                changedRows.remove(changedId.value);
+            }
+            changedEntities.forEach(entity -> changedRows.put(id.applyAsLong(entity), copy.apply(entity)));
+            return new Table<>(changedRows, sortedIds(changedRows));
+        }
+
+        private static long[] sortedIds(LongObjectHashMap<?> rows) {
+            long[] ids = rows.keys().toArray();
+            Arrays.sort(ids);
+            return ids;
+        }
+
+        int size() {
+            return sortedIds.length;
+        }
+
+        Page<T> page(Pageable pageable) {
+            int total = sortedIds.length;
+            int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), total) : 0;
+            int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), total) : total;
+            Sort.Order order = pageable.getSort().getOrderFor("id");
+            boolean descending = order != null && order.isDescending();
+            List<T> content = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                content.add(rows.get(sortedIds[descending ? total - 1 - i : i]));
+            }
+            return new PageImpl<>(content, pageable, total);
+        }
+    }
+
+    /**
+     * The ids of the rows marked dirty, with the sequence of the last commit that changed each of them.
+     */
+    private record DirtyRows(LongLongHashMap materialIds, LongLongHashMap materialMethodIds) {
+        static final DirtyRows NONE = new DirtyRows(new LongLongHashMap(), new LongLongHashMap());
+
+        DirtyRows with(PendingChanges changes, long sequence) {
+            return new DirtyRows(
+                with(materialIds, changes.materialIds(), sequence),
+                with(materialMethodIds, changes.materialMethodIds(), sequence)
+            );
+        }
+
+        private static LongLongHashMap with(LongLongHashMap rows, LongHashSet changedIds, long sequence) {
+            if (changedIds.isEmpty()) {
+                return rows;
+            }
+            LongLongHashMap changedRows = rows.clone();
+            for (LongCursor changedId : changedIds) {
+                changedRows.put(changedId.value, sequence);
+            }
+            return changedRows;
+        }
+
+        /**
+         * @param applied dirty rows that have been applied.
+         * @return the rows still dirty, which are those changed again since.
+         */
+        DirtyRows without(DirtyRows applied) {
+            return new DirtyRows(without(materialIds, applied.materialIds()), without(materialMethodIds, applied.materialMethodIds()));
+        }
+
+        private static LongLongHashMap without(LongLongHashMap rows, LongLongHashMap appliedRows) {
+            if (appliedRows.isEmpty()) {
+                return rows;
+            }
+            LongLongHashMap remainingRows = rows.clone();
+            for (LongLongCursor appliedRow : appliedRows) {
+                if (remainingRows.get(appliedRow.key) == appliedRow.value) {
+                    remainingRows.remove(appliedRow.key);
+                }
+            }
+            return remainingRows;
+        }
+
+        PendingChanges changes() {
+            PendingChanges changes = new PendingChanges();
+            changes.materialIds().addAll(materialIds.keys());
+            changes.materialMethodIds().addAll(materialMethodIds.keys());
+            return changes;
+        }
+
+        boolean isEmpty() {
+            return materialIds.isEmpty() && materialMethodIds.isEmpty();
+        }
+    }
+
+    /**
+     * The ids of the entities changed by a transaction.
+     */
+    private static final class PendingChanges {
+
+        private final LongHashSet materialIds = new LongHashSet();
+
+        private final LongHashSet materialMethodIds = new LongHashSet();
+
+        void add(EntityChangedEvent event) {
+            if (Material.class.equals(event.entityType())) {
+                materialIds.add(event.id());
+            } else if (MaterialMethod.class.equals(event.entityType())) {
+                materialMethodIds.add(event.id());
+            }
+        }
+
+        void addAll(PendingChanges changes) {
+            materialIds.addAll(changes.materialIds);
+            materialMethodIds.addAll(changes.materialMethodIds);
+        }
+
+        boolean isEmpty() {
+            return materialIds.isEmpty() && materialMethodIds.isEmpty();
+        }
+
+        LongHashSet materialIds() {
+            return materialIds;
+        }
+
+        LongHashSet materialMethodIds() {
+            return materialMethodIds;
+        }
+    }
+}
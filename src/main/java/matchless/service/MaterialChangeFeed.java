@@ -0,0 +1,352 @@
+package matchless.service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import matchless.config.ApplicationProperties;
+import matchless.domain.Material;
+import matchless.domain.MaterialMethod;
+import matchless.service.event.EntityChangedEvent;
+import matchless.service.event.EntityChangedEvent.ChangeType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Feed of the committed changes to {@link Material} and {@link MaterialMethod}, pushed to subscribers so that clients
+ * don't have to poll.
+ * <p>
+ * Changes are collected once their transaction has committed and coalesced per entity until the next flush, so that a
+ * burst of writes to one entity produces a single change. Each flushed change gets an increasing event id and is kept
+ * in a bounded history, from which a subscriber resuming after a given event id is replayed.
+ * <p>
+ * Every subscriber has its own bounded buffer, drained on the feed's own executor: deliveries block on the writes to
+ * slow clients, and must neither hold the shared task executor nor queue behind its tasks. At most
+ * {@code application.change-feed.delivery-threads} subscribers are written to at once, the others waiting their turn
+ * with at most one pending drain each. A subscriber that falls too far behind, or that resumes after an event no
+ * longer in the history, has its buffer dropped and is told to resync, that is to re-read the entities it cares about,
+ * instead of making the feed hold an unbounded backlog for it.
+ * <p>
+ * The feed, and its event ids, are per node: only the changes committed on this instance are pushed, those committed
+ * on other instances never are, and a Last-Event-ID issued by another instance is replayed against this instance's
+ * history, whose ids are unrelated. Behind a load balancer, clients must stick to one instance, and re-read through
+ * {@link MaterialChangeLog}, which is shared through the database, to see the changes of all of them.
+ */
+@Service
+public class MaterialChangeFeed implements DisposableBean {
+
+    private final Logger log = LoggerFactory.getLogger(MaterialChangeFeed.class);
+
+    private final ApplicationProperties.ChangeFeed properties;
+
+    private final Executor deliveryExecutor;
+
+    private final ThreadPoolTaskExecutor ownExecutor;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Changes committed since the last flush, by entity. Guarded by itself.
+     */
+    private final Map<EntityKey, ChangeType> pending = new LinkedHashMap<>();
+
+    /**
+     * Guards {@link #history} and {@link #lastEventId}, so that a subscriber is replayed exactly the changes it has
+     * not been dispatched.
+     */
+    private final Object feedLock = new Object();
+
+    private final Deque<Change> history = new ArrayDeque<>();
+
+    private long lastEventId;
+
+    @Autowired
+    public MaterialChangeFeed(ApplicationProperties applicationProperties) {
+        this(applicationProperties, deliveryExecutor(applicationProperties.getChangeFeed()));
+    }
+
+    MaterialChangeFeed(ApplicationProperties applicationProperties, Executor deliveryExecutor) {
+        this.properties = applicationProperties.getChangeFeed();
+        this.deliveryExecutor = deliveryExecutor;
+        this.ownExecutor = deliveryExecutor instanceof ThreadPoolTaskExecutor executor ? executor : null;
+        // Event ids of a previous run are lower, so that clients resuming with them are told to resync.
+        this.lastEventId = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    }
+
+    private static ThreadPoolTaskExecutor deliveryExecutor(ApplicationProperties.ChangeFeed properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getDeliveryThreads());
+        executor.setMaxPoolSize(properties.getDeliveryThreads());
+        // Holds at most one drain per subscriber
+        executor.setQueueCapacity(Integer.MAX_VALUE);
+        executor.setThreadNamePrefix("matchless-change-feed-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Override
+    public void destroy() {
+        if (ownExecutor != null) {
+            ownExecutor.shutdown();
+        }
+    }
+
+    /**
+     * A change to an entity, as dispatched to subscribers.
+     *
+     * @param eventId the id of the event, increasing with each change.
+     * @param entity the name of the entity type, {@code material} or {@code materialMethod}.
+     * @param id the id of the entity.
+     * @param changeType what happened to the entity since the previous change dispatched for it.
+     */
+    public record Change(long eventId, String entity, Long id, ChangeType changeType) {}
+
+    /**
+     * Receives the changes of a subscription, one call at a time.
+     */
+    public interface Listener {
+        /**
+         * @param change the change.
+         * @throws IOException if the change could not be delivered, which cancels the subscription.
+         */
+        void onChange(Change change) throws IOException;
+
+        /**
+         * Called instead of the changes a subscriber missed, which may be any changes up to {@code eventId}.
+         *
+         * @param eventId the id of the last missed event.
+         * @throws IOException if the notice could not be delivered, which cancels the subscription.
+         */
+        void onResync(long eventId) throws IOException;
+
+        /**
+         * Called periodically, to keep the connection open and detect subscribers that are gone.
+         *
+         * @throws IOException if the heartbeat could not be delivered, which cancels the subscription.
+         */
+        void onHeartbeat() throws IOException;
+    }
+
+    /**
+     * Subscribe to the changes.
+     *
+     * @param lastEventId the id of the last event already received, to resume after it, or {@code null} to only
+     *                    receive the changes dispatched from now on.
+     * @param listener the listener of the changes.
+     * @return the subscription, to cancel once the listener is gone.
+     */
+    public Subscription subscribe(Long lastEventId, Listener listener) {
+        Subscription subscription = new Subscription(listener, properties.getSubscriberBufferSize());
+        synchronized (feedLock) {
+            if (lastEventId != null && lastEventId != this.lastEventId) {
+                Change oldest = history.peekFirst();
+                if (lastEventId > this.lastEventId || oldest == null || lastEventId < oldest.eventId() - 1) {
+                    subscription.resync(this.lastEventId);
+                } else {
+                    history.stream().filter(change -> change.eventId() > lastEventId).forEach(subscription::offer);
+                }
+            }
+            subscriptions.add(subscription);
+        }
+        log.debug("Subscribed to material changes after event {}, {} subscribers", lastEventId, subscriptions.size());
+        subscription.drain();
+        return subscription;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if ((event.entityType() != Material.class && event.entityType() != MaterialMethod.class) || event.id() == null) {
+            return;
+        }
+        synchronized (pending) {
+            pending.merge(new EntityKey(event.entityType(), event.id()), event.changeType(), MaterialChangeFeed::coalesce);
+        }
+    }
+
+    /**
+     * @return the change, since {@code previous}, of an entity that went through {@code previous} then {@code next},
+     * or {@code null} if it was created then deleted.
+     */
+    static ChangeType coalesce(ChangeType previous, ChangeType next) {
+        if (previous == ChangeType.CREATED) {
+            return next == ChangeType.DELETED ? null : ChangeType.CREATED;
+        }
+        if (previous == ChangeType.DELETED && next != ChangeType.DELETED) {
+            return ChangeType.UPDATED;
+        }
+        return next;
+    }
+
+    /**
+     * Dispatch the changes coalesced since the last flush.
+     */
+    @Scheduled(fixedDelayString = "${application.change-feed.coalesce-millis:250}")
+    public void flush() {
+        Map<EntityKey, ChangeType> changes;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            changes = new LinkedHashMap<>(pending);
+            pending.clear();
+        }
+        synchronized (feedLock) {
+            changes.forEach((key, changeType) -> {
+                Change change = new Change(++lastEventId, key.entity(), key.id(), changeType);
+                history.addLast(change);
+                if (history.size() > properties.getHistorySize()) {
+                    history.removeFirst();
+                }
+                subscriptions.forEach(subscription -> subscription.offer(change));
+            });
+        }
+        subscriptions.forEach(Subscription::drain);
+    }
+
+    @Scheduled(fixedRateString = "${application.change-feed.heartbeat-seconds:15}", timeUnit = TimeUnit.SECONDS)
+    public void heartbeat() {
+        subscriptions.forEach(Subscription::heartbeat);
+    }
+
+    /**
+     * @return the number of current subscriptions.
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    private record EntityKey(Class<?> entityType, Long id) {
+        String entity() {
+            return entityType == Material.class ? "material" : "materialMethod";
+        }
+    }
+
+    /**
+     * A subscription to the changes, buffering those its listener has not received yet.
+     */
+    public final class Subscription {
+
+        private final Listener listener;
+
+        private final int bufferSize;
+
+        /**
+         * Guarded by {@code this}, as are {@link #resyncEventId} and {@link #heartbeatDue}.
+         */
+        private final Deque<Change> buffer = new ArrayDeque<>();
+
+        private Long resyncEventId;
+
+        private boolean heartbeatDue;
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private volatile boolean cancelled;
+
+        private Subscription(Listener listener, int bufferSize) {
+            this.listener = listener;
+            this.bufferSize = bufferSize;
+        }
+
+        /**
+         * Stop receiving changes.
+         */
+        public void cancel() {
+            cancelled = true;
+            if (subscriptions.remove(this)) {
+                log.debug("Unsubscribed from material changes, {} subscribers", subscriptions.size());
+            }
+            synchronized (this) {
+                buffer.clear();
+            }
+        }
+
+        private synchronized void offer(Change change) {
+            if (buffer.size() < bufferSize) {
+                buffer.addLast(change);
+            } else {
+                resync(change.eventId());
+            }
+        }
+
+        private synchronized void resync(long eventId) {
+            buffer.clear();
+            resyncEventId = eventId;
+        }
+
+        private void heartbeat() {
+            synchronized (this) {
+                heartbeatDue = true;
+            }
+            drain();
+        }
+
+        private synchronized boolean hasWork() {
+            return resyncEventId != null || !buffer.isEmpty() || heartbeatDue;
+        }
+
+        private void drain() {
+            if (cancelled || !hasWork() || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                deliveryExecutor.execute(this::drainNow);
+            } catch (RejectedExecutionException e) {
+                // Retried on the next flush or heartbeat
+                draining.set(false);
+            }
+        }
+
+        private void drainNow() {
+            try {
+                deliverAll();
+            } catch (IOException | RuntimeException e) {
+                log.debug("Cancelling subscription to material changes: {}", e.toString());
+                cancel();
+            } finally {
+                draining.set(false);
+            }
+            // Work offered after the last poll but before draining was reset
+            drain();
+        }
+
+        private void deliverAll() throws IOException {
+            while (!cancelled) {
+                Long resync;
+                Change change;
+                boolean heartbeat;
+                synchronized (this) {
+                    resync = resyncEventId;
+                    resyncEventId = null;
+                    change = resync == null ? buffer.pollFirst() : null;
+                    heartbeat = heartbeatDue;
+                    heartbeatDue = false;
+                }
+                if (resync != null) {
+                    listener.onResync(resync);
+                } else if (change != null) {
+                    listener.onChange(change);
+                } else if (heartbeat) {
+                    listener.onHeartbeat();
+                    return;
+                } else {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package matchless.service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import matchless.config.ApplicationProperties;
+import matchless.domain.ChangeLogEntry;
+import matchless.domain.Material;
+import matchless.domain.MaterialMethod;
+import matchless.domain.enumeration.ChangeLogOperation;
+import matchless.repository.BulkLoadRepository;
+import matchless.repository.ChangeLogEntryRepository;
+import matchless.service.dto.MaterialChangesDTO;
+import matchless.service.event.EntityChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records the writes to {@link Material} and {@link MaterialMethod} in a change log, and serves them back in batches
+ * so that clients synchronize by only reading what changed since their last synchronization.
+ * <p>
+ * Each write appends a {@link ChangeLogEntry} in the transaction making it, numbered by a database sequence. A client
+ * gets changes after the sequence number of the last entry it has read, its token. As sequence numbers are taken
+ * before commit, a transaction may commit an entry numbered below one already read; only entries older than
+ * {@code application.change-log.settle-seconds} are served, so that those are not skipped. This is a hard limit: the
+ * entries of a transaction that commits more than {@code settle-seconds} after writing them may be numbered below a
+ * token already handed out, and are then never served to the clients holding it. The setting must stay above the
+ * longest transaction writing materials.
+ * <p>
+ * The changed entities are read from the database, bypassing the {@link MaterialCatalog} and the second-level cache,
+ * which are per node and may not have caught up with a commit made on another instance.
+ * <p>
+ * The log is compacted by dropping the entries followed by a later one for the same entity: a client only needs the
+ * latest state of an entity. Entries of deleted entities are kept, so that any token remains valid.
+ */
+@Service
+@Transactional
+public class MaterialChangeLog {
+
+    private static final String MATERIAL = Material.class.getSimpleName();
+
+    private static final String MATERIAL_METHOD = MaterialMethod.class.getSimpleName();
+
+    private final Logger log = LoggerFactory.getLogger(MaterialChangeLog.class);
+
+    private final ChangeLogEntryRepository changeLogEntryRepository;
+
+    private final BulkLoadRepository bulkLoadRepository;
+
+    private final ApplicationProperties.ChangeLog properties;
+
+    public MaterialChangeLog(
+        ChangeLogEntryRepository changeLogEntryRepository,
+        BulkLoadRepository bulkLoadRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this.changeLogEntryRepository = changeLogEntryRepository;
+        this.bulkLoadRepository = bulkLoadRepository;
+        this.properties = applicationProperties.getChangeLog();
+    }
+
+    /**
+     * Append the change to the log, in the transaction that made it.
+     *
+     * @param event the change.
+     */
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if ((event.entityType() != Material.class && event.entityType() != MaterialMethod.class) || event.id() == null) {
+            return;
+        }
+        ChangeLogEntry entry = new ChangeLogEntry();
+        entry.setEntityType(event.entityType().getSimpleName());
+        entry.setEntityId(event.id());
+        entry.setOperation(
+            switch (event.changeType()) {
+                case CREATED -> ChangeLogOperation.INSERT;
+                case UPDATED -> ChangeLogOperation.UPDATE;
+                case DELETED -> ChangeLogOperation.DELETE;
+            }
+        );
+        entry.setChangedAt(Instant.now());
+        changeLogEntryRepository.save(entry);
+    }
+
+    /**
+     * Get the changes after a token.
+     *
+     * @param since the token of the last changes read, or {@code null} to only get the current token, before
+     *              reading all the entities.
+     * @return the latest state of the entities changed after {@code since}, up to {@code application.change-log.batch-size}
+     * entries of the log, and the token to get the next changes with.
+     */
+    @Transactional(readOnly = true)
+    public MaterialChangesDTO findChanges(Long since) {
+        Instant settledAt = Instant.now().minusSeconds(properties.getSettleSeconds());
+        MaterialChangesDTO changes = new MaterialChangesDTO();
+        if (since == null) {
+            changes.setToken(
+                changeLogEntryRepository
+                    .findFirstByChangedAtLessThanEqualOrderBySequenceDesc(settledAt)
+                    .map(entry -> entry.getSequence().toString())
+                    .orElse("0")
+            );
+            return changes;
+        }
+        List<ChangeLogEntry> entries = changeLogEntryRepository.findAllBySequenceGreaterThanAndChangedAtLessThanEqualOrderBySequence(
+            since,
+            settledAt,
+            Limit.of(properties.getBatchSize())
+        );
+        Map<Long, ChangeLogOperation> materials = new LinkedHashMap<>();
+        Map<Long, ChangeLogOperation> materialMethods = new LinkedHashMap<>();
+        for (ChangeLogEntry entry : entries) {
+            if (MATERIAL.equals(entry.getEntityType())) {
+                materials.put(entry.getEntityId(), entry.getOperation());
+            } else if (MATERIAL_METHOD.equals(entry.getEntityType())) {
+                materialMethods.put(entry.getEntityId(), entry.getOperation());
+            }
+        }
+        changes.setMaterials(bulkLoadRepository.findAllByIdInOrderFromDatabase(Material.class, ids(materials, false)));
+        changes.setDeletedMaterialIds(ids(materials, true));
+        changes.setMaterialMethods(bulkLoadRepository.findAllByIdInOrderFromDatabase(MaterialMethod.class, ids(materialMethods, false)));
+        changes.setDeletedMaterialMethodIds(ids(materialMethods, true));
+        changes.setToken(entries.isEmpty() ? since.toString() : entries.get(entries.size() - 1).getSequence().toString());
+        changes.setHasMore(entries.size() == properties.getBatchSize());
+        return changes;
+    }
+
+    private static List<Long> ids(Map<Long, ChangeLogOperation> operations, boolean deleted) {
+        return operations
+            .entrySet()
+            .stream()
+            .filter(operation -> (operation.getValue() == ChangeLogOperation.DELETE) == deleted)
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    /**
+     * Drop the entries superseded by a later entry for the same entity.
+     */
+    @Scheduled(
+        initialDelayString = "${application.change-log.compact-interval-seconds:3600}",
+        fixedDelayString = "${application.change-log.compact-interval-seconds:3600}",
+        timeUnit = TimeUnit.SECONDS
+    )
+    public void compact() {
+        int deleted = changeLogEntryRepository.deleteSuperseded();
+        log.debug("Compacted the change log, {} superseded entries deleted", deleted);
+    }
+}
@@ -1,13 +1,21 @@
 package matchless.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
 import java.util.Optional;
+import matchless.cache.SingleFlight;
 import matchless.domain.MaterialMethod;
+import matchless.repository.BulkLoadRepository;
 import matchless.repository.MaterialMethodRepository;
+import matchless.service.event.EntityChangedEvent;
+import matchless.service.event.EntityChangedEvent.ChangeType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -21,8 +29,23 @@ public class MaterialMethodService {
 
     private final MaterialMethodRepository materialMethodRepository;
 
-    public MaterialMethodService(MaterialMethodRepository materialMethodRepository) {
+    private final BulkLoadRepository bulkLoadRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final SingleFlight<Long, Optional<MaterialMethod>> loads;
+
+    public MaterialMethodService(
+        MaterialMethodRepository materialMethodRepository,
+        BulkLoadRepository bulkLoadRepository,
+        ApplicationEventPublisher eventPublisher,
+        MeterRegistry meterRegistry
+    ) {
         this.materialMethodRepository = materialMethodRepository;
+        this.bulkLoadRepository = bulkLoadRepository;
+        this.eventPublisher = eventPublisher;
+        this.loads =
+            new SingleFlight<>(MaterialMethod.class.getName(), meterRegistry, loaded -> loaded.map(MaterialCatalog::copyOfMaterialMethod));
     }
 
     /**
@@ -33,7 +56,9 @@ public class MaterialMethodService {
      */
     public MaterialMethod save(MaterialMethod materialMethod) {
         log.debug("Request to save MaterialMethod : {}", materialMethod);
-        return materialMethodRepository.save(materialMethod);
+        MaterialMethod result = materialMethodRepository.save(materialMethod);
+        publishChange(result.getId(), ChangeType.CREATED);
+        return result;
     }
 
     /**
@@ -44,7 +69,9 @@ public class MaterialMethodService {
      */
     public MaterialMethod update(MaterialMethod materialMethod) {
         log.debug("Request to update MaterialMethod : {}", materialMethod);
-        return materialMethodRepository.save(materialMethod);
+        MaterialMethod result = materialMethodRepository.save(materialMethod);
+        publishChange(result.getId(), ChangeType.UPDATED);
+        return result;
     }
 
     /**
@@ -65,7 +92,11 @@ public class MaterialMethodService {
 
                 return existingMaterialMethod;
             })
-            .map(materialMethodRepository::save);
+            .map(materialMethodRepository::save)
+            .map(result -> {
+                publishChange(result.getId(), ChangeType.UPDATED);
+                return result;
+            });
     }
 
     /**
@@ -86,10 +117,22 @@ public class MaterialMethodService {
      * @param id the id of the entity.
      * @return the entity.
      */
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Optional<MaterialMethod> findOne(Long id) {
         log.debug("Request to get MaterialMethod : {}", id);
-        return materialMethodRepository.findById(id);
+        return loads.load(id, () -> materialMethodRepository.findById(id));
+    }
+
+    /**
+     * Get the materialMethods with the given ids, in one query for those not in the second-level cache.
+     *
+     * @param ids the ids of the entities, without duplicates.
+     * @return the entities that exist, in the order of {@code ids}.
+     */
+    @Transactional(readOnly = true)
+    public List<MaterialMethod> findAllById(List<Long> ids) {
+        log.debug("Request to get MaterialMethods : {}", ids);
+        return bulkLoadRepository.findAllByIdInOrder(MaterialMethod.class, ids);
     }
 
     /**
@@ -100,5 +143,10 @@ public class MaterialMethodService {
     public void delete(Long id) {
         log.debug("Request to delete MaterialMethod : {}", id);
         materialMethodRepository.deleteById(id);
+        publishChange(id, ChangeType.DELETED);
+    }
+
+    private void publishChange(Long id, ChangeType changeType) {
+        eventPublisher.publishEvent(new EntityChangedEvent(MaterialMethod.class, id, changeType));
     }
 }
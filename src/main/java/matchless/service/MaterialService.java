@@ -1,13 +1,21 @@
 package matchless.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
 import java.util.Optional;
+import matchless.cache.SingleFlight;
 import matchless.domain.Material;
+import matchless.repository.BulkLoadRepository;
 import matchless.repository.MaterialRepository;
+import matchless.service.event.EntityChangedEvent;
+import matchless.service.event.EntityChangedEvent.ChangeType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -21,8 +29,23 @@ public class MaterialService {
 
     private final MaterialRepository materialRepository;
 
-    public MaterialService(MaterialRepository materialRepository) {
+    private final BulkLoadRepository bulkLoadRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final SingleFlight<Long, Optional<Material>> loads;
+
+    public MaterialService(
+        MaterialRepository materialRepository,
+        BulkLoadRepository bulkLoadRepository,
+        ApplicationEventPublisher eventPublisher,
+        MeterRegistry meterRegistry
+    ) {
         this.materialRepository = materialRepository;
+        this.bulkLoadRepository = bulkLoadRepository;
+        this.eventPublisher = eventPublisher;
+        this.loads =
+            new SingleFlight<>(Material.class.getName(), meterRegistry, loaded -> loaded.map(MaterialCatalog::copyOfMaterial));
     }
 
     /**
@@ -33,7 +56,9 @@ public class MaterialService {
      */
     public Material save(Material material) {
         log.debug("Request to save Material : {}", material);
-        return materialRepository.save(material);
+        Material result = materialRepository.save(material);
+        publishChange(result.getId(), ChangeType.CREATED);
+        return result;
     }
 
     /**
@@ -44,7 +69,9 @@ public class MaterialService {
      */
     public Material update(Material material) {
         log.debug("Request to update Material : {}", material);
-        return materialRepository.save(material);
+        Material result = materialRepository.save(material);
+        publishChange(result.getId(), ChangeType.UPDATED);
+        return result;
     }
 
     /**
@@ -68,7 +95,11 @@ public class MaterialService {
 
                 return existingMaterial;
             })
-            .map(materialRepository::save);
+            .map(materialRepository::save)
+            .map(result -> {
+                publishChange(result.getId(), ChangeType.UPDATED);
+                return result;
+            });
     }
 
     /**
@@ -89,10 +120,22 @@ public class MaterialService {
      * @param id the id of the entity.
      * @return the entity.
      */
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Optional<Material> findOne(Long id) {
         log.debug("Request to get Material : {}", id);
-        return materialRepository.findById(id);
+        return loads.load(id, () -> materialRepository.findById(id));
+    }
+
+    /**
+     * Get the materials with the given ids, in one query for those not in the second-level cache.
+     *
+     * @param ids the ids of the entities, without duplicates.
+     * @return the entities that exist, in the order of {@code ids}.
+     */
+    @Transactional(readOnly = true)
+    public List<Material> findAllById(List<Long> ids) {
+        log.debug("Request to get Materials : {}", ids);
+        return bulkLoadRepository.findAllByIdInOrder(Material.class, ids);
     }
 
     /**
@@ -103,5 +146,10 @@ public class MaterialService {
     public void delete(Long id) {
         log.debug("Request to delete Material : {}", id);
         materialRepository.deleteById(id);
+        publishChange(id, ChangeType.DELETED);
+    }
+
+    private void publishChange(Long id, ChangeType changeType) {
+        eventPublisher.publishEvent(new EntityChangedEvent(Material.class, id, changeType));
     }
 }
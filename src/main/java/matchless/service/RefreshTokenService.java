@@ -0,0 +1,172 @@
+package matchless.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Optional;
+import matchless.domain.RefreshToken;
+import matchless.domain.User;
+import matchless.repository.RefreshTokenRepository;
+import matchless.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service for managing refresh tokens.
+ * <p>
+ * A refresh token is 256 random bits, so it is stored as its SHA-256 digest rather than a password hash: renewing a
+ * session is one lookup on the unique index of the digest. Each token is used once, and replaced by a new one of the
+ * same family. Used tokens are kept until they expire: presenting one again means that it leaked, so every token of its
+ * family is revoked, and whoever holds the latest one, the user or an attacker, has to log in again.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final UserRepository userRepository;
+
+    private final JHipsterProperties.Security.Authentication.Jwt jwtProperties;
+
+    public RefreshTokenService(
+        RefreshTokenRepository refreshTokenRepository,
+        UserRepository userRepository,
+        JHipsterProperties jHipsterProperties
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.jwtProperties = jHipsterProperties.getSecurity().getAuthentication().getJwt();
+    }
+
+    /**
+     * Issue a refresh token to a user who has just authenticated.
+     *
+     * @param login the login of the user.
+     * @param rememberMe whether the session lasts for the remember-me validity.
+     * @return the refresh token.
+     */
+    public String create(String login, boolean rememberMe) {
+        User user = userRepository
+            .findOneWithAuthoritiesByLogin(login)
+            .orElseThrow(() -> new IllegalStateException("User " + login + " was not found in the database"));
+        return create(userRepository.getReferenceById(user.getId()), rememberMe, null);
+    }
+
+    /**
+     * Exchange a refresh token for a new one. The given token can not be used again.
+     *
+     * @param token the refresh token.
+     * @return the user, with its authorities, and the new refresh token, or empty if the token is unknown, expired,
+     * already used, or the user is not activated. A token already used revokes its whole family.
+     */
+    public Optional<Rotation> rotate(String token) {
+        Optional<RefreshToken> found = refreshTokenRepository.findOneWithUserByTokenHash(digest(token));
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        RefreshToken refreshToken = found.orElseThrow();
+        if (refreshToken.getUsedAt() != null) {
+            int revoked = refreshTokenRepository.deleteAllByFamily(refreshToken.getFamily());
+            log.warn(
+                "Reuse of a rotated refresh token of User: {}, revoked {} tokens of its family",
+                refreshToken.getUser().getLogin(),
+                revoked
+            );
+            return Optional.empty();
+        }
+        Instant now = Instant.now();
+        if (
+            !refreshToken.getExpiresAt().isAfter(now) ||
+            !refreshToken.getUser().isActivated() ||
+            refreshTokenRepository.markUsed(refreshToken.getId(), now) != 1
+        ) {
+            return Optional.empty();
+        }
+        User user = refreshToken.getUser();
+        return Optional.of(
+            new Rotation(user, refreshToken.isRememberMe(), create(user, refreshToken.isRememberMe(), refreshToken.getFamily()))
+        );
+    }
+
+    /**
+     * Revoke a refresh token and the tokens of its family, for instance on logout.
+     *
+     * @param token the refresh token.
+     */
+    public void revoke(String token) {
+        refreshTokenRepository
+            .findOneByTokenHash(digest(token))
+            .ifPresent(refreshToken -> refreshTokenRepository.deleteAllByFamily(refreshToken.getFamily()));
+    }
+
+    /**
+     * Revoke all the refresh tokens of a user, for instance when their password changes.
+     *
+     * @param user the user.
+     */
+    public void revokeAll(User user) {
+        int revoked = refreshTokenRepository.deleteAllByUser(user);
+        log.debug("Revoked {} refresh tokens of User: {}", revoked, user.getLogin());
+    }
+
+    /**
+     * Expired refresh tokens are deleted every day, at 02:00 (am).
+     */
+    @Scheduled(cron = "0 0 2 * * ?")
+    public void removeExpiredTokens() {
+        int removed = refreshTokenRepository.deleteAllByExpiresAtBefore(Instant.now());
+        log.debug("Deleted {} expired refresh tokens", removed);
+    }
+
+    /**
+     * @param family the family of the new token, or {@code null} to start a family.
+     */
+    private String create(User user, boolean rememberMe, String family) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        long validity = rememberMe ? jwtProperties.getTokenValidityInSecondsForRememberMe() : jwtProperties.getTokenValidityInSeconds();
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(digest(token));
+        refreshToken.setFamily(family != null ? family : refreshToken.getTokenHash());
+        refreshToken.setUser(user);
+        refreshToken.setRememberMe(rememberMe);
+        refreshToken.setExpiresAt(Instant.now().plus(validity, ChronoUnit.SECONDS));
+        refreshTokenRepository.save(refreshToken);
+        return token;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * The outcome of a successful {@link #rotate(String)}.
+     *
+     * @param user the user the token was issued to.
+     * @param rememberMe whether the session lasts for the remember-me validity.
+     * @param refreshToken the new refresh token.
+     */
+    public record Rotation(User user, boolean rememberMe, String refreshToken) {}
+}
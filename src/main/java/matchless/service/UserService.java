@@ -1,5 +1,7 @@
 package matchless.service;
 
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -8,16 +10,21 @@ import matchless.config.Constants;
 import matchless.domain.Authority;
 import matchless.domain.User;
 import matchless.repository.AuthorityRepository;
+import matchless.repository.ProjectionRepository;
 import matchless.repository.UserRepository;
 import matchless.security.AuthoritiesConstants;
 import matchless.security.SecurityUtils;
+import matchless.security.UserLookupGuard;
 import matchless.service.dto.AdminUserDTO;
 import matchless.service.dto.UserDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -33,6 +40,23 @@ public class UserService {
 
     private final Logger log = LoggerFactory.getLogger(UserService.class);
 
+    private static final List<String> MANAGED_USER_ATTRIBUTES = List.of(
+        "id",
+        "login",
+        "firstName",
+        "lastName",
+        "email",
+        "imageUrl",
+        "activated",
+        "langKey",
+        "createdBy",
+        "createdDate",
+        "lastModifiedBy",
+        "lastModifiedDate"
+    );
+
+    private static final List<String> PUBLIC_USER_ATTRIBUTES = List.of("id", "login");
+
     private final UserRepository userRepository;
 
     private final PasswordEncoder passwordEncoder;
@@ -41,16 +65,28 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
+    private final UserLookupGuard userLookupGuard;
+
+    private final RefreshTokenService refreshTokenService;
+
+    private final ProjectionRepository projectionRepository;
+
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        CacheManager cacheManager,
+        UserLookupGuard userLookupGuard,
+        RefreshTokenService refreshTokenService,
+        ProjectionRepository projectionRepository
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.userLookupGuard = userLookupGuard;
+        this.refreshTokenService = refreshTokenService;
+        this.projectionRepository = projectionRepository;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -76,6 +112,7 @@ public class UserService {
                 user.setPassword(passwordEncoder.encode(newPassword));
                 user.setResetKey(null);
                 user.setResetDate(null);
+                refreshTokenService.revokeAll(user);
                 this.clearUserCaches(user);
                 return user;
             });
@@ -223,6 +260,7 @@ public class UserService {
         userRepository
             .findOneByLogin(login)
             .ifPresent(user -> {
+                refreshTokenService.revokeAll(user);
                 userRepository.delete(user);
                 this.clearUserCaches(user);
                 log.debug("Deleted User: {}", user);
@@ -268,6 +306,7 @@ public class UserService {
                 }
                 String encryptedPassword = passwordEncoder.encode(newPassword);
                 user.setPassword(encryptedPassword);
+                refreshTokenService.revokeAll(user);
                 this.clearUserCaches(user);
                 log.debug("Changed password for User: {}", user);
             });
@@ -278,19 +317,66 @@ public class UserService {
         return userRepository.findAll(pageable).map(AdminUserDTO::new);
     }
 
+    /**
+     * Gets a page of users, reading only the columns of the requested fields.
+     *
+     * @param pageable the pagination information.
+     * @param fields the names of the fields to read, or {@code null} to read them all.
+     * @return the page of users, whose other fields are left empty.
+     */
+    @Transactional(readOnly = true)
+    public Page<AdminUserDTO> getAllManagedUsers(Pageable pageable, Set<String> fields) {
+        if (fields == null || fields.contains("authorities")) {
+            return getAllManagedUsers(pageable);
+        }
+        return projectionRepository
+            .findAll(User.class, projectedAttributes(fields, MANAGED_USER_ATTRIBUTES), (root, query, cb) -> null, pageable)
+            .map(tuple -> project(tuple, new AdminUserDTO()));
+    }
+
     @Transactional(readOnly = true)
     public Page<UserDTO> getAllPublicUsers(Pageable pageable) {
         return userRepository.findAllByIdNotNullAndActivatedIsTrue(pageable).map(UserDTO::new);
     }
 
+    /**
+     * Gets a page of activated users, reading only the columns of the requested fields.
+     *
+     * @param pageable the pagination information.
+     * @param fields the names of the fields to read, or {@code null} to read them all.
+     * @return the page of users, whose other fields are left empty.
+     */
+    @Transactional(readOnly = true)
+    public Page<UserDTO> getAllPublicUsers(Pageable pageable, Set<String> fields) {
+        if (fields == null) {
+            return getAllPublicUsers(pageable);
+        }
+        Specification<User> activated = (root, query, cb) -> cb.isTrue(root.get("activated"));
+        return projectionRepository
+            .findAll(User.class, projectedAttributes(fields, PUBLIC_USER_ATTRIBUTES), activated, pageable)
+            .map(tuple -> project(tuple, new UserDTO()));
+    }
+
+    private static List<String> projectedAttributes(Set<String> fields, List<String> attributes) {
+        return attributes.stream().filter(attribute -> attribute.equals("id") || fields.contains(attribute)).toList();
+    }
+
+    private static <T> T project(Tuple tuple, T dto) {
+        BeanWrapper wrapper = new BeanWrapperImpl(dto);
+        for (TupleElement<?> element : tuple.getElements()) {
+            wrapper.setPropertyValue(element.getAlias(), tuple.get(element));
+        }
+        return dto;
+    }
+
     @Transactional(readOnly = true)
     public Optional<User> getUserWithAuthoritiesByLogin(String login) {
-        return userRepository.findOneWithAuthoritiesByLogin(login);
+        return userLookupGuard.findOneWithAuthoritiesByLogin(login);
     }
 
     @Transactional(readOnly = true)
     public Optional<User> getUserWithAuthorities() {
-        return SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneWithAuthoritiesByLogin);
+        return SecurityUtils.getCurrentUserLogin().flatMap(userLookupGuard::findOneWithAuthoritiesByLogin);
     }
 
     /**
@@ -323,5 +409,6 @@ public class UserService {
         if (user.getEmail() != null) {
             Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
         }
+        userLookupGuard.userChanged(user);
     }
 }
@@ -0,0 +1,88 @@
+package matchless.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import matchless.domain.Material;
+import matchless.domain.MaterialMethod;
+
+/**
+ * A DTO representing a batch of changes to materials and materialMethods, and the token to get the next batch with.
+ */
+public class MaterialChangesDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String token;
+
+    private boolean hasMore;
+
+    private List<Material> materials = new ArrayList<>();
+
+    private List<MaterialMethod> materialMethods = new ArrayList<>();
+
+    private List<Long> deletedMaterialIds = new ArrayList<>();
+
+    private List<Long> deletedMaterialMethodIds = new ArrayList<>();
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public List<Material> getMaterials() {
+        return materials;
+    }
+
+    public void setMaterials(List<Material> materials) {
+        this.materials = materials;
+    }
+
+    public List<MaterialMethod> getMaterialMethods() {
+        return materialMethods;
+    }
+
+    public void setMaterialMethods(List<MaterialMethod> materialMethods) {
+        this.materialMethods = materialMethods;
+    }
+
+    public List<Long> getDeletedMaterialIds() {
+        return deletedMaterialIds;
+    }
+
+    public void setDeletedMaterialIds(List<Long> deletedMaterialIds) {
+        this.deletedMaterialIds = deletedMaterialIds;
+    }
+
+    public List<Long> getDeletedMaterialMethodIds() {
+        return deletedMaterialMethodIds;
+    }
+
+    public void setDeletedMaterialMethodIds(List<Long> deletedMaterialMethodIds) {
+        this.deletedMaterialMethodIds = deletedMaterialMethodIds;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MaterialChangesDTO{" +
+            "token='" + token + '\'' +
+            ", hasMore=" + hasMore +
+            ", materials=" + materials.size() +
+            ", materialMethods=" + materialMethods.size() +
+            ", deletedMaterialIds=" + deletedMaterialIds +
+            ", deletedMaterialMethodIds=" + deletedMaterialMethodIds +
+            "}";
+    }
+}
@@ -0,0 +1,19 @@
+package matchless.service.event;
+
+/**
+ * Published by the entity services whenever an entity is created, updated or deleted.
+ * <p>
+ * The event is published inside the writing transaction; listeners maintaining derived state (caches, feeds) should
+ * react once it has committed.
+ *
+ * @param entityType the class of the changed entity.
+ * @param id the id of the changed entity.
+ * @param changeType what happened to the entity.
+ */
+public record EntityChangedEvent(Class<?> entityType, Long id, ChangeType changeType) {
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED,
+    }
+}
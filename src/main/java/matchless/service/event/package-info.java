@@ -0,0 +1,4 @@
+/**
+ * Application events published by the services.
+ */
+package matchless.service.event;
@@ -0,0 +1,77 @@
+package matchless.web.filter;
+
+import java.util.Arrays;
+
+/**
+ * An immutable trie of path prefixes, matching a path without allocating.
+ */
+final class PathPrefixTrie {
+
+    private static final char[] NO_LABELS = new char[0];
+
+    private static final PathPrefixTrie[] NO_CHILDREN = new PathPrefixTrie[0];
+
+    private char[] labels = NO_LABELS;
+
+    private PathPrefixTrie[] children = NO_CHILDREN;
+
+    private boolean terminal;
+
+    private PathPrefixTrie() {}
+
+    /**
+     * @param prefixes the prefixes to match.
+     * @return the trie of the prefixes.
+     */
+    static PathPrefixTrie of(String... prefixes) {
+        PathPrefixTrie root = new PathPrefixTrie();
+        for (String prefix : prefixes) {
+            PathPrefixTrie node = root;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.childOrCreate(prefix.charAt(i));
+            }
+            node.terminal = true;
+        }
+        return root;
+    }
+
+    /**
+     * @param path the path to match.
+     * @param from the index of the path to start matching at.
+     * @return whether {@code path}, from {@code from}, starts with one of the prefixes.
+     */
+    boolean matchesPrefixOf(String path, int from) {
+        PathPrefixTrie node = this;
+        for (int i = from; !node.terminal; i++) {
+            if (i == path.length()) {
+                return false;
+            }
+            node = node.child(path.charAt(i));
+            if (node == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private PathPrefixTrie child(char label) {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] == label) {
+                return children[i];
+            }
+        }
+        return null;
+    }
+
+    private PathPrefixTrie childOrCreate(char label) {
+        PathPrefixTrie child = child(label);
+        if (child == null) {
+            child = new PathPrefixTrie();
+            labels = Arrays.copyOf(labels, labels.length + 1);
+            labels[labels.length - 1] = label;
+            children = Arrays.copyOf(children, children.length + 1);
+            children[children.length - 1] = child;
+        }
+        return child;
+    }
+}
@@ -0,0 +1,361 @@
+package matchless.web.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import matchless.config.ApplicationProperties;
+import matchless.domain.Material;
+import matchless.domain.MaterialMethod;
+import matchless.service.event.EntityChangedEvent;
+import matchless.service.event.EntityChangedEvent.ChangeType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Caches the serialized bodies of hot entity GET endpoints, so that repeated reads are written straight to the response
+ * without going through Hibernate or Jackson.
+ * <p>
+ * Only {@code GET /api/<entities>/{id}} and the first pages of {@code GET /api/<entities>} are cached. Entries are
+ * keyed by request URL, sorted parameters and {@code Accept} header, and are evicted after the
+ * {@link EntityChangedEvent} of a committed write: a detail entry when its entity changes, and a page when any entity
+ * of its type changes. Pages sorted by id alone are the exception, as an update cannot move an entity onto them: they
+ * are only evicted by an update to one of their own entities.
+ * <p>
+ * Concurrent misses of the same entry are coalesced: the first request is executed, and the others wait for it and
+ * are answered with its serialized response. The {@code response.cache.loads} counter, tagged with whether a load was
+ * {@code coalesced}, gives the coalescing ratio.
+ * <p>
+ * The filter runs after the Spring Security filter chain, so cached bodies are only served to authorized requests.
+ */
+@Component
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private static final Map<String, Class<?>> CACHED_RESOURCES = Map.of(
+        "/api/materials",
+        Material.class,
+        "/api/material-methods",
+        MaterialMethod.class
+    );
+
+    private final ApplicationProperties.ResponseCache properties;
+
+    private final ObjectMapper objectMapper;
+
+    private final Cache<String, CachedResponse> cache;
+
+    private final Map<Class<?>, AtomicLong> generations = Map.of(Material.class, new AtomicLong(), MaterialMethod.class, new AtomicLong());
+
+    private final ConcurrentMap<String, CompletableFuture<CachedResponse>> loads = new ConcurrentHashMap<>();
+
+    private final Counter executedLoads;
+
+    private final Counter coalescedLoads;
+
+    public ResponseCacheFilter(ApplicationProperties applicationProperties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = applicationProperties.getResponseCache();
+        this.objectMapper = objectMapper;
+        this.cache =
+            CaffeineCacheMetrics.monitor(
+                meterRegistry,
+                Caffeine
+                    .newBuilder()
+                    .maximumSize(properties.getMaxEntries())
+                    .expireAfterWrite(Duration.ofSeconds(properties.getTimeToLiveSeconds()))
+                    .recordStats()
+                    .<String, CachedResponse>build(),
+                "responseCache"
+            );
+        this.executedLoads = loadCounter(meterRegistry, false);
+        this.coalescedLoads = loadCounter(meterRegistry, true);
+    }
+
+    private static Counter loadCounter(MeterRegistry meterRegistry, boolean coalesced) {
+        return Counter
+            .builder("response.cache.loads")
+            .description("Cache misses, executed or answered with the response of a concurrent identical request")
+            .tag("coalesced", String.valueOf(coalesced))
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        Target target = properties.isEnabled() && HttpMethod.GET.matches(request.getMethod()) ? resolveTarget(request) : null;
+        if (target == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = cacheKey(request);
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            writeCachedResponse(cached, request, response);
+            return;
+        }
+
+        CompletableFuture<CachedResponse> load = null;
+        if (properties.isCoalescing()) {
+            load = new CompletableFuture<>();
+            CompletableFuture<CachedResponse> concurrentLoad = loads.putIfAbsent(key, load);
+            if (concurrentLoad != null) {
+                CachedResponse shared = await(concurrentLoad);
+                if (shared != null) {
+                    coalescedLoads.increment();
+                    writeCachedResponse(shared, request, response);
+                    return;
+                }
+                load = null;
+            }
+        }
+
+        executedLoads.increment();
+        CachedResponse loaded = null;
+        AtomicLong generation = generations.get(target.entityType());
+        long generationAtStart = generation.get();
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            if (
+                responseWrapper.getStatus() == HttpServletResponse.SC_OK &&
+                responseWrapper.getHeader(HttpHeaders.CONTENT_ENCODING) == null
+            ) {
+                loaded = toCachedResponse(target, request, responseWrapper);
+                cache.put(key, loaded);
+                // A write committed while this response was being built: it may hold stale data.
+                if (generation.get() != generationAtStart) {
+                    cache.invalidate(key);
+                    loaded = null;
+                }
+            }
+        } finally {
+            if (load != null) {
+                loads.remove(key, load);
+                load.complete(loaded);
+            }
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Wait for the response of a concurrent identical request.
+     *
+     * @return the response, or {@code null} if it cannot be shared or did not come in time.
+     */
+    private CachedResponse await(CompletableFuture<CachedResponse> load) {
+        try {
+            return load.get(properties.getCoalescingTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Evict the entries affected by a committed entity write.
+     *
+     * @param event the entity change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        AtomicLong generation = generations.get(event.entityType());
+        if (generation == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        cache.asMap().values().removeIf(cached -> cached.isAffectedBy(event));
+    }
+
+    private Target resolveTarget(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Map.Entry<String, Class<?>> resource : CACHED_RESOURCES.entrySet()) {
+            String prefix = resource.getKey();
+            if (!path.startsWith(prefix)) {
+                continue;
+            }
+            if (path.length() == prefix.length()) {
+                return isCachedPage(request) ? new Target(resource.getValue(), null) : null;
+            }
+            Long id = parseId(path, prefix.length());
+            return id != null ? new Target(resource.getValue(), id) : null;
+        }
+        return null;
+    }
+
+    private boolean isCachedPage(HttpServletRequest request) {
+        String page = request.getParameter("page");
+        if (page == null) {
+            return true;
+        }
+        try {
+            int pageNumber = Integer.parseInt(page);
+            return pageNumber >= 0 && pageNumber < properties.getMaxPages();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static Long parseId(String path, int prefixLength) {
+        if (path.charAt(prefixLength) != '/' || path.length() == prefixLength + 1 || path.length() > prefixLength + 19) {
+            return null;
+        }
+        for (int i = prefixLength + 1; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+        }
+        return Long.valueOf(path.substring(prefixLength + 1));
+    }
+
+    private static String cacheKey(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(request.getRequestURL());
+        char separator = '?';
+        for (Map.Entry<String, String[]> parameter : new TreeMap<>(request.getParameterMap()).entrySet()) {
+            for (String value : parameter.getValue()) {
+                key.append(separator).append(parameter.getKey()).append('=').append(value);
+                separator = '&';
+            }
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept != null) {
+            key.append('|').append(accept);
+        }
+        return key.toString();
+    }
+
+    private CachedResponse toCachedResponse(Target target, HttpServletRequest request, ContentCachingResponseWrapper responseWrapper)
+        throws IOException {
+        byte[] body = responseWrapper.getContentAsByteArray();
+        return new CachedResponse(
+            target.entityType(),
+            target.id(),
+            target.id() == null && isSortedById(request) ? extractIds(body) : null,
+            responseWrapper.getContentType(),
+            body,
+            properties.isGzip() ? gzip(body) : null,
+            responseWrapper.getHeader(TOTAL_COUNT_HEADER),
+            responseWrapper.getHeader(HttpHeaders.LINK)
+        );
+    }
+
+    /**
+     * @return whether the page is sorted by id alone, so that updates cannot change which entities it holds. Pages
+     * without a sort are not: the database returns their rows in no particular order, which an update may change.
+     */
+    private static boolean isSortedById(HttpServletRequest request) {
+        String[] sorts = request.getParameterValues("sort");
+        if (sorts == null || sorts.length == 0) {
+            return false;
+        }
+        for (String sort : sorts) {
+            if (!sort.equals("id") && !sort.startsWith("id,")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collect the ids of a page sorted by id, so that updates only evict the pages they appear in.
+     *
+     * @return the ids, or {@code null} if the body could not be read as a JSON array.
+     */
+    private Set<Long> extractIds(byte[] body) {
+        try {
+            JsonNode page = objectMapper.readTree(body);
+            if (page == null || !page.isArray()) {
+                return null;
+            }
+            Set<Long> ids = new HashSet<>();
+            page.forEach(entity -> ids.add(entity.path("id").asLong()));
+            return ids;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 32);
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(compressed)) {
+            gzipStream.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    private void writeCachedResponse(CachedResponse cached, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cached.contentType());
+        if (cached.totalCount() != null) {
+            response.setHeader(TOTAL_COUNT_HEADER, cached.totalCount());
+        }
+        if (cached.link() != null) {
+            response.setHeader(HttpHeaders.LINK, cached.link());
+        }
+        byte[] body = cached.body();
+        if (cached.gzipBody() != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                body = cached.gzipBody();
+            }
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private record Target(Class<?> entityType, Long id) {}
+
+    private record CachedResponse(
+        Class<?> entityType,
+        Long id,
+        Set<Long> ids,
+        String contentType,
+        byte[] body,
+        byte[] gzipBody,
+        String totalCount,
+        String link
+    ) {
+        boolean isAffectedBy(EntityChangedEvent event) {
+            if (!entityType.equals(event.entityType())) {
+                return false;
+            }
+            if (id != null) {
+                return id.equals(event.id());
+            }
+            return event.changeType() != ChangeType.UPDATED || ids == null || ids.contains(event.id());
+        }
+    }
+}
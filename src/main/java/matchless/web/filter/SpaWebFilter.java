@@ -5,31 +5,106 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 public class SpaWebFilter extends OncePerRequestFilter {
 
+    private static final PathPrefixTrie SERVER_PATHS = PathPrefixTrie.of(
+        "/api",
+        "/management",
+        "/v3/api-docs",
+        "/h2-console",
+        "/websocket"
+    );
+
+    private static final String INDEX_CONTENT_TYPE = "text/html;charset=UTF-8";
+
+    private final byte[] index;
+
+    private final String indexETag;
+
+    /**
+     * Creates a filter forwarding the client routes to {@code /index.html}.
+     */
+    public SpaWebFilter() {
+        this.index = null;
+        this.indexETag = null;
+    }
+
+    /**
+     * Creates a filter serving the client routes with the content of {@code index}, read once, or forwarding them to
+     * {@code /index.html} when it does not exist.
+     *
+     * @param index the client {@code index.html}.
+     */
+    public SpaWebFilter(Resource index) {
+        if (index.exists()) {
+            try (InputStream content = index.getInputStream()) {
+                this.index = content.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read " + index, e);
+            }
+            this.indexETag = "\"" + DigestUtils.md5DigestAsHex(this.index) + "\"";
+        } else {
+            this.index = null;
+            this.indexETag = null;
+        }
+    }
+
     /**
-     * Forwards any unmapped paths (except those containing a period) to the client {@code index.html}.
+     * Serves, or forwards to, the client {@code index.html} for any unmapped paths (except those containing a period).
+     * <p>
+     * The path is matched in place, against a trie of the server prefixes, so that routing allocates nothing.
      */
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
         throws ServletException, IOException {
-        // Request URI includes the contextPath if any, removed it.
-        String path = request.getRequestURI().substring(request.getContextPath().length());
-        if (
-            !path.startsWith("/api") &&
-            !path.startsWith("/management") &&
-            !path.startsWith("/v3/api-docs") &&
-            !path.startsWith("/h2-console") &&
-            !path.startsWith("/websocket") &&
-            !path.contains(".") &&
-            path.matches("/(.*)")
-        ) {
+        if (!isClientRoute(request.getRequestURI(), request.getContextPath().length())) {
+            filterChain.doFilter(request, response);
+        } else if (index != null && (HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod()))) {
+            writeIndex(request, response);
+        } else {
             request.getRequestDispatcher("/index.html").forward(request, response);
-            return;
         }
+    }
+
+    /**
+     * @param uri the request URI.
+     * @param from the index of the path in {@code uri}, after the context path.
+     * @return whether the path is a route of the client, rather than a server endpoint or a file.
+     */
+    static boolean isClientRoute(String uri, int from) {
+        if (from >= uri.length() || uri.charAt(from) != '/' || SERVER_PATHS.matchesPrefixOf(uri, from)) {
+            return false;
+        }
+        for (int i = from + 1; i < uri.length(); i++) {
+            char c = uri.charAt(i);
+            if (c == '.' || c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        filterChain.doFilter(request, response);
+    private void writeIndex(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, indexETag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(indexETag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(INDEX_CONTENT_TYPE);
+        response.setContentLength(index.length);
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            response.getOutputStream().write(index);
+        }
     }
 }
@@ -3,23 +3,35 @@ package matchless.web.rest;
 import static matchless.security.SecurityUtils.AUTHORITIES_KEY;
 import static matchless.security.SecurityUtils.JWT_ALGORITHM;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
+import matchless.config.ApplicationProperties;
+import matchless.domain.Authority;
+import matchless.security.AuthenticationPhaseTimers;
+import matchless.security.AuthenticationPhaseTimers.Phase;
+import matchless.security.LoginThrottle;
+import matchless.service.RefreshTokenService;
 import matchless.web.rest.vm.LoginVM;
+import matchless.web.rest.vm.RefreshTokenVM;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.JwsHeader;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
@@ -46,13 +58,33 @@ public class AuthenticateController {
 
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public AuthenticateController(JwtEncoder jwtEncoder, AuthenticationManagerBuilder authenticationManagerBuilder) {
+    private final AuthenticationPhaseTimers authenticationPhaseTimers;
+
+    private final RefreshTokenService refreshTokenService;
+
+    private final ApplicationProperties.RefreshToken refreshTokenProperties;
+
+    private final LoginThrottle loginThrottle;
+
+    public AuthenticateController(
+        JwtEncoder jwtEncoder,
+        AuthenticationManagerBuilder authenticationManagerBuilder,
+        AuthenticationPhaseTimers authenticationPhaseTimers,
+        RefreshTokenService refreshTokenService,
+        ApplicationProperties applicationProperties,
+        LoginThrottle loginThrottle
+    ) {
         this.jwtEncoder = jwtEncoder;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.authenticationPhaseTimers = authenticationPhaseTimers;
+        this.refreshTokenService = refreshTokenService;
+        this.refreshTokenProperties = applicationProperties.getRefreshToken();
+        this.loginThrottle = loginThrottle;
     }
 
     @PostMapping("/authenticate")
-    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM) {
+    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM, HttpServletRequest request) {
+        loginThrottle.acquire(loginVM.getUsername(), request.getRemoteAddr());
         UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
             loginVM.getUsername(),
             loginVM.getPassword()
@@ -61,9 +93,42 @@ public class AuthenticateController {
         Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = this.createToken(authentication, loginVM.isRememberMe());
+        String refreshToken = refreshTokenProperties.isEnabled()
+            ? refreshTokenService.create(authentication.getName(), loginVM.isRememberMe())
+            : null;
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.setBearerAuth(jwt);
+        return new ResponseEntity<>(new JWTToken(jwt, refreshToken), httpHeaders, HttpStatus.OK);
+    }
+
+    /**
+     * {@code POST /authenticate/refresh} : exchange a refresh token for a new access token and a new refresh token,
+     * without verifying the password again.
+     *
+     * @param refreshTokenVM the refresh token, which can not be used again.
+     * @return the new tokens, or status {@code 401 (Unauthorized)} if the refresh token is not valid.
+     */
+    @PostMapping("/authenticate/refresh")
+    public ResponseEntity<JWTToken> refresh(@Valid @RequestBody RefreshTokenVM refreshTokenVM) {
+        if (!refreshTokenProperties.isEnabled()) {
+            throw new BadCredentialsException("Refresh tokens are disabled");
+        }
+        RefreshTokenService.Rotation rotation = refreshTokenService
+            .rotate(refreshTokenVM.getRefreshToken())
+            .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+
+        List<SimpleGrantedAuthority> authorities = rotation
+            .user()
+            .getAuthorities()
+            .stream()
+            .map(Authority::getName)
+            .map(SimpleGrantedAuthority::new)
+            .toList();
+        Authentication authentication = new UsernamePasswordAuthenticationToken(rotation.user().getLogin(), null, authorities);
+        String jwt = this.createToken(authentication, rotation.rememberMe());
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.setBearerAuth(jwt);
-        return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
+        return new ResponseEntity<>(new JWTToken(jwt, rotation.refreshToken()), httpHeaders, HttpStatus.OK);
     }
 
     /**
@@ -83,7 +148,9 @@ public class AuthenticateController {
 
         Instant now = Instant.now();
         Instant validity;
-        if (rememberMe) {
+        if (refreshTokenProperties.isEnabled()) {
+            validity = now.plus(refreshTokenProperties.getAccessTokenValidityInSeconds(), ChronoUnit.SECONDS);
+        } else if (rememberMe) {
             validity = now.plus(this.tokenValidityInSecondsForRememberMe, ChronoUnit.SECONDS);
         } else {
             validity = now.plus(this.tokenValidityInSeconds, ChronoUnit.SECONDS);
@@ -91,6 +158,7 @@ public class AuthenticateController {
 
         // @formatter:off
         JwtClaimsSet claims = JwtClaimsSet.builder()
+            .id(UUID.randomUUID().toString())
             .issuedAt(now)
             .expiresAt(validity)
             .subject(authentication.getName())
@@ -98,18 +166,25 @@ public class AuthenticateController {
             .build();
 
         JwsHeader jwsHeader = JwsHeader.with(JWT_ALGORITHM).build();
-        return this.jwtEncoder.encode(JwtEncoderParameters.from(jwsHeader, claims)).getTokenValue();
+        return authenticationPhaseTimers.record(
+            Phase.TOKEN_ENCODE,
+            () -> this.jwtEncoder.encode(JwtEncoderParameters.from(jwsHeader, claims)).getTokenValue()
+        );
     }
 
     /**
      * Object to return as body in JWT Authentication.
      */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     static class JWTToken {
 
         private String idToken;
 
-        JWTToken(String idToken) {
+        private String refreshToken;
+
+        JWTToken(String idToken, String refreshToken) {
             this.idToken = idToken;
+            this.refreshToken = refreshToken;
         }
 
         @JsonProperty("id_token")
@@ -120,5 +195,14 @@ public class AuthenticateController {
         void setIdToken(String idToken) {
             this.idToken = idToken;
         }
+
+        @JsonProperty("refresh_token")
+        String getRefreshToken() {
+            return refreshToken;
+        }
+
+        void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
     }
 }
@@ -0,0 +1,49 @@
+package matchless.web.rest;
+
+import matchless.security.TokenRevocationService;
+import matchless.service.RefreshTokenService;
+import matchless.web.rest.vm.RefreshTokenVM;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for logging out of the server side.
+ */
+@RestController
+@RequestMapping("/api")
+public class LogoutResource {
+
+    private final Logger log = LoggerFactory.getLogger(LogoutResource.class);
+
+    private final TokenRevocationService tokenRevocationService;
+
+    private final RefreshTokenService refreshTokenService;
+
+    public LogoutResource(TokenRevocationService tokenRevocationService, RefreshTokenService refreshTokenService) {
+        this.tokenRevocationService = tokenRevocationService;
+        this.refreshTokenService = refreshTokenService;
+    }
+
+    /**
+     * {@code POST /logout} : revoke the JWT of the request, and the given refresh token if any.
+     *
+     * @param jwt the JWT of the request.
+     * @param refreshTokenVM the refresh token of the session, if any.
+     * @return the {@link ResponseEntity} with status {@code 204 (No Content)}.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@AuthenticationPrincipal Jwt jwt, @RequestBody(required = false) RefreshTokenVM refreshTokenVM) {
+        log.debug("REST request to log out");
+        if (jwt != null) {
+            tokenRevocationService.revoke(jwt);
+        }
+        if (refreshTokenVM != null && refreshTokenVM.getRefreshToken() != null) {
+            refreshTokenService.revoke(refreshTokenVM.getRefreshToken());
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
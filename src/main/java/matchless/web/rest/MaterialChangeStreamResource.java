@@ -0,0 +1,84 @@
+package matchless.web.rest;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import matchless.config.ApplicationProperties;
+import matchless.service.MaterialChangeFeed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST controller pushing the changes to {@link matchless.domain.Material} and {@link matchless.domain.MaterialMethod}
+ * as server-sent events, from {@link MaterialChangeFeed}.
+ * <p>
+ * Each change is sent as a {@code change} event whose data is the entity type, id and change type, and whose id can be
+ * sent back in the {@code Last-Event-ID} header to resume after it. A {@code resync} event means that changes were
+ * missed, and that the client should re-read the entities it holds.
+ */
+@RestController
+@RequestMapping("/api/materials")
+public class MaterialChangeStreamResource {
+
+    private static final String CHANGE_EVENT = "change";
+
+    private static final String RESYNC_EVENT = "resync";
+
+    private final Logger log = LoggerFactory.getLogger(MaterialChangeStreamResource.class);
+
+    private final MaterialChangeFeed materialChangeFeed;
+
+    private final ApplicationProperties.ChangeFeed properties;
+
+    public MaterialChangeStreamResource(MaterialChangeFeed materialChangeFeed, ApplicationProperties applicationProperties) {
+        this.materialChangeFeed = materialChangeFeed;
+        this.properties = applicationProperties.getChangeFeed();
+    }
+
+    /**
+     * {@code GET  /materials/stream} : stream the changes to materials and materialMethods.
+     *
+     * @param lastEventId the id of the last event received, to resume after it.
+     * @return the {@link SseEmitter} of the changes.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMaterialChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        log.debug("REST request to stream Material changes after event {}", lastEventId);
+        SseEmitter emitter = new SseEmitter(TimeUnit.SECONDS.toMillis(properties.getTimeoutSeconds()));
+        MaterialChangeFeed.Subscription subscription = materialChangeFeed.subscribe(lastEventId, new EmitterListener(emitter));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+
+    private record EmitterListener(SseEmitter emitter) implements MaterialChangeFeed.Listener {
+        @Override
+        public void onChange(MaterialChangeFeed.Change change) throws IOException {
+            emitter.send(
+                SseEmitter
+                    .event()
+                    .id(Long.toString(change.eventId()))
+                    .name(CHANGE_EVENT)
+                    .data(new ChangeData(change.entity(), change.id(), change.changeType().name()), MediaType.APPLICATION_JSON)
+            );
+        }
+
+        @Override
+        public void onResync(long eventId) throws IOException {
+            emitter.send(SseEmitter.event().id(Long.toString(eventId)).name(RESYNC_EVENT).data("{}"));
+        }
+
+        @Override
+        public void onHeartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment(""));
+        }
+    }
+
+    private record ChangeData(String entity, Long id, String changeType) {}
+}
@@ -9,6 +9,7 @@ import java.util.Objects;
 import java.util.Optional;
 import matchless.domain.MaterialMethod;
 import matchless.repository.MaterialMethodRepository;
+import matchless.service.MaterialCatalog;
 import matchless.service.MaterialMethodService;
 import matchless.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
@@ -35,6 +36,8 @@ public class MaterialMethodResource {
 
     private static final String ENTITY_NAME = "materialMethod";
 
+    private static final int MAX_IDS = 1000;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -42,9 +45,16 @@ public class MaterialMethodResource {
 
     private final MaterialMethodRepository materialMethodRepository;
 
-    public MaterialMethodResource(MaterialMethodService materialMethodService, MaterialMethodRepository materialMethodRepository) {
+    private final MaterialCatalog materialCatalog;
+
+    public MaterialMethodResource(
+        MaterialMethodService materialMethodService,
+        MaterialMethodRepository materialMethodRepository,
+        MaterialCatalog materialCatalog
+    ) {
         this.materialMethodService = materialMethodService;
         this.materialMethodRepository = materialMethodRepository;
+        this.materialCatalog = materialCatalog;
     }
 
     /**
@@ -147,11 +157,27 @@ public class MaterialMethodResource {
     @GetMapping("")
     public ResponseEntity<List<MaterialMethod>> getAllMaterialMethods(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
         log.debug("REST request to get a page of MaterialMethods");
-        Page<MaterialMethod> page = materialMethodService.findAll(pageable);
+        Page<MaterialMethod> page = materialCatalog.findAllMaterialMethods(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /material-methods?ids=:ids} : get the materialMethods with the given ids, in one request.
+     *
+     * @param ids the ids of the materialMethods to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the existing materialMethods, in the order of the ids, or with status {@code 400 (Bad Request)} if more than {@value #MAX_IDS} ids are requested.
+     */
+    @GetMapping(value = "", params = "ids")
+    public ResponseEntity<List<MaterialMethod>> getMaterialMethodsByIds(@RequestParam("ids") List<Long> ids) {
+        log.debug("REST request to get MaterialMethods : {}", ids);
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.size() > MAX_IDS) {
+            throw new BadRequestAlertException("Too many ids", ENTITY_NAME, "toomanyids");
+        }
+        return ResponseEntity.ok(materialCatalog.findMaterialMethods(distinctIds));
+    }
+
     /**
      * {@code GET  /material-methods/:id} : get the "id" materialMethod.
      *
@@ -161,7 +187,7 @@ public class MaterialMethodResource {
     @GetMapping("/{id}")
     public ResponseEntity<MaterialMethod> getMaterialMethod(@PathVariable("id") Long id) {
         log.debug("REST request to get MaterialMethod : {}", id);
-        Optional<MaterialMethod> materialMethod = materialMethodService.findOne(id);
+        Optional<MaterialMethod> materialMethod = materialCatalog.findMaterialMethod(id);
         return ResponseUtil.wrapOrNotFound(materialMethod);
     }
 
@@ -9,6 +9,7 @@ import java.util.Objects;
 import java.util.Optional;
 import matchless.domain.Material;
 import matchless.repository.MaterialRepository;
+import matchless.service.MaterialCatalog;
 import matchless.service.MaterialService;
 import matchless.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
@@ -35,6 +36,8 @@ public class MaterialResource {
 
     private static final String ENTITY_NAME = "material";
 
+    private static final int MAX_IDS = 1000;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -42,9 +45,12 @@ public class MaterialResource {
 
     private final MaterialRepository materialRepository;
 
-    public MaterialResource(MaterialService materialService, MaterialRepository materialRepository) {
+    private final MaterialCatalog materialCatalog;
+
+    public MaterialResource(MaterialService materialService, MaterialRepository materialRepository, MaterialCatalog materialCatalog) {
         this.materialService = materialService;
         this.materialRepository = materialRepository;
+        this.materialCatalog = materialCatalog;
     }
 
     /**
@@ -146,11 +152,27 @@ public class MaterialResource {
     @GetMapping("")
     public ResponseEntity<List<Material>> getAllMaterials(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
         log.debug("REST request to get a page of Materials");
-        Page<Material> page = materialService.findAll(pageable);
+        Page<Material> page = materialCatalog.findAllMaterials(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /materials?ids=:ids} : get the materials with the given ids, in one request.
+     *
+     * @param ids the ids of the materials to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the existing materials, in the order of the ids, or with status {@code 400 (Bad Request)} if more than {@value #MAX_IDS} ids are requested.
+     */
+    @GetMapping(value = "", params = "ids")
+    public ResponseEntity<List<Material>> getMaterialsByIds(@RequestParam("ids") List<Long> ids) {
+        log.debug("REST request to get Materials : {}", ids);
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.size() > MAX_IDS) {
+            throw new BadRequestAlertException("Too many ids", ENTITY_NAME, "toomanyids");
+        }
+        return ResponseEntity.ok(materialCatalog.findMaterials(distinctIds));
+    }
+
     /**
      * {@code GET  /materials/:id} : get the "id" material.
      *
@@ -160,7 +182,7 @@ public class MaterialResource {
     @GetMapping("/{id}")
     public ResponseEntity<Material> getMaterial(@PathVariable("id") Long id) {
         log.debug("REST request to get Material : {}", id);
-        Optional<Material> material = materialService.findOne(id);
+        Optional<Material> material = materialCatalog.findMaterial(id);
         return ResponseUtil.wrapOrNotFound(material);
     }
 
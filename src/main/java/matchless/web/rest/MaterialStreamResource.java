@@ -0,0 +1,68 @@
+package matchless.web.rest;
+
+import matchless.domain.Material;
+import matchless.domain.MaterialMethod;
+import matchless.domain.enumeration.MethodType;
+import matchless.repository.MaterialStreamRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/**
+ * REST controller streaming {@link matchless.domain.Material} and {@link matchless.domain.MaterialMethod} as
+ * newline-delimited JSON.
+ * <p>
+ * Each entity is written and flushed as soon as it is read, and the next one is only requested once the previous one
+ * has been written, so slow clients apply backpressure down to the database. The writes run on the MVC async executor,
+ * see {@link matchless.config.AsyncWebConfiguration}.
+ */
+@RestController
+@RequestMapping("/api/reactive")
+public class MaterialStreamResource {
+
+    private final Logger log = LoggerFactory.getLogger(MaterialStreamResource.class);
+
+    private final MaterialStreamRepository materialStreamRepository;
+
+    public MaterialStreamResource(MaterialStreamRepository materialStreamRepository) {
+        this.materialStreamRepository = materialStreamRepository;
+    }
+
+    /**
+     * {@code GET  /reactive/materials} : stream all the materials.
+     *
+     * @return the materials, one JSON document per line.
+     */
+    @GetMapping(value = "/materials", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Material> streamAllMaterials() {
+        log.debug("REST request to stream all Materials");
+        return materialStreamRepository.streamAllMaterials();
+    }
+
+    /**
+     * {@code GET  /reactive/material-methods} : stream all the materialMethods.
+     *
+     * @return the materialMethods, one JSON document per line.
+     */
+    @GetMapping(value = "/material-methods", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MaterialMethodLine> streamAllMaterialMethods() {
+        log.debug("REST request to stream all MaterialMethods");
+        return materialStreamRepository.streamAllMaterialMethods().map(MaterialMethodLine::of);
+    }
+
+    /**
+     * A materialMethod with its name as a reference, {@code {"id":..}}, as the other endpoints write an unloaded one.
+     */
+    record MaterialMethodLine(Long id, MethodType type, Reference name) {
+        static MaterialMethodLine of(MaterialMethod materialMethod) {
+            Material name = materialMethod.getName();
+            return new MaterialMethodLine(materialMethod.getId(), materialMethod.getType(), name != null ? new Reference(name.getId()) : null);
+        }
+    }
+
+    record Reference(Long id) {}
+}
@@ -0,0 +1,57 @@
+package matchless.web.rest;
+
+import matchless.service.MaterialChangeLog;
+import matchless.service.dto.MaterialChangesDTO;
+import matchless.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for the delta synchronization of {@link matchless.domain.Material} and
+ * {@link matchless.domain.MaterialMethod}, from {@link MaterialChangeLog}.
+ * <p>
+ * A client first gets a token without {@code since}, then reads all the entities, and from then on only gets the
+ * changes since its last token, repeating while {@code hasMore} is {@code true}.
+ */
+@RestController
+@RequestMapping("/api/materials")
+public class MaterialSyncResource {
+
+    private static final String ENTITY_NAME = "material";
+
+    private final Logger log = LoggerFactory.getLogger(MaterialSyncResource.class);
+
+    private final MaterialChangeLog materialChangeLog;
+
+    public MaterialSyncResource(MaterialChangeLog materialChangeLog) {
+        this.materialChangeLog = materialChangeLog;
+    }
+
+    /**
+     * {@code GET  /materials/changes} : get the changes to materials and materialMethods since a token.
+     *
+     * @param since the token returned by the previous call, if any.
+     * @return the {@link MaterialChangesDTO} with the changed and deleted entities, and the next token.
+     */
+    @GetMapping("/changes")
+    public MaterialChangesDTO getMaterialChanges(@RequestParam(name = "since", required = false) String since) {
+        log.debug("REST request to get Material changes since {}", since);
+        return materialChangeLog.findChanges(since != null ? parseToken(since) : null);
+    }
+
+    private static Long parseToken(String token) {
+        try {
+            long sequence = Long.parseLong(token);
+            if (sequence >= 0) {
+                return sequence;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new BadRequestAlertException("Invalid synchronization token", ENTITY_NAME, "tokeninvalid");
+    }
+}
@@ -0,0 +1,88 @@
+package matchless.web.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Applies the {@code fields} query parameter to the entities returned by the REST controllers: only the listed
+ * properties of the returned entities, and their {@code id}, are serialized.
+ * <p>
+ * The filter applies to the types registered with the {@value #FILTER_ID} filter id in {@code JacksonConfiguration},
+ * and only at the top level of the response, so that the entities nested in the returned ones are left complete.
+ */
+@RestControllerAdvice
+public class SparseFieldsetAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    public static final String FIELDS_PARAMETER = "fields";
+
+    public static final String FILTER_ID = "sparseFieldset";
+
+    @Override
+    protected void beforeBodyWriteInternal(
+        MappingJacksonValue bodyContainer,
+        MediaType contentType,
+        MethodParameter returnType,
+        ServerHttpRequest request,
+        ServerHttpResponse response
+    ) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        String fields = servletRequest.getServletRequest().getParameter(FIELDS_PARAMETER);
+        if (fields != null) {
+            bodyContainer.setFilters(new SimpleFilterProvider().addFilter(FILTER_ID, new TopLevelPropertyFilter(parseFields(fields))));
+        }
+    }
+
+    /**
+     * Parse the value of the {@code fields} query parameter.
+     *
+     * @param fields the comma-separated names of the fields.
+     * @return the names of the fields, including {@code id}.
+     */
+    public static Set<String> parseFields(String fields) {
+        return Stream
+            .concat(Stream.of("id"), Arrays.stream(fields.split(",")).map(String::trim).filter(field -> !field.isEmpty()))
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static final class TopLevelPropertyFilter extends SimpleBeanPropertyFilter {
+
+        private final Set<String> fields;
+
+        private TopLevelPropertyFilter(Set<String> fields) {
+            this.fields = fields;
+        }
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator generator, SerializerProvider provider, PropertyWriter writer)
+            throws Exception {
+            if (fields.contains(writer.getName()) || !isTopLevel(generator.getOutputContext())) {
+                writer.serializeAsField(pojo, generator, provider);
+            } else if (!generator.canOmitFields()) {
+                writer.serializeAsOmittedField(pojo, generator, provider);
+            }
+        }
+
+        private static boolean isTopLevel(JsonStreamContext context) {
+            JsonStreamContext parent = context.getParent();
+            return parent.inRoot() || (parent.inArray() && parent.getParent().inRoot());
+        }
+    }
+}
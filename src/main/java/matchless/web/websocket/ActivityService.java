@@ -2,8 +2,15 @@ package matchless.web.websocket;
 
 import static matchless.config.WebsocketConfiguration.IP_ADDRESS;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.security.Principal;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import matchless.web.websocket.dto.ActivityDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,29 +18,70 @@ import org.springframework.context.ApplicationListener;
 import org.springframework.messaging.handler.annotation.*;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 
+/**
+ * Relays the pages visited by clients to the subscribers of {@link #TRACKER_DESTINATION}.
+ * <p>
+ * Activities are not broadcast as they arrive: they are merged per session, the latest one winning, and the activities
+ * of each window of {@code application.tracker.window-millis} are published together as one frame, a JSON array. The
+ * broker thus sends each subscriber one message per window, however many clients navigate.
+ */
 @Controller
 public class ActivityService implements ApplicationListener<SessionDisconnectEvent> {
 
+    public static final String TRACKER_DESTINATION = "/topic/tracker";
+
     private static final Logger log = LoggerFactory.getLogger(ActivityService.class);
 
     private final SimpMessageSendingOperations messagingTemplate;
 
-    public ActivityService(SimpMessageSendingOperations messagingTemplate) {
+    private final SimpUserRegistry simpUserRegistry;
+
+    /**
+     * Latest activity of each session since the last frame.
+     */
+    private final Map<String, ActivityDTO> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Activities received since the last frame, including those superseded in {@link #pending}.
+     */
+    private final AtomicLong received = new AtomicLong();
+
+    private final Counter activities;
+
+    private final Counter frames;
+
+    private final Counter messagesSaved;
+
+    public ActivityService(SimpMessageSendingOperations messagingTemplate, SimpUserRegistry simpUserRegistry, MeterRegistry meterRegistry) {
         this.messagingTemplate = messagingTemplate;
+        this.simpUserRegistry = simpUserRegistry;
+        this.activities = Counter
+            .builder("tracker.activities")
+            .description("Activities received from clients")
+            .register(meterRegistry);
+        this.frames = Counter
+            .builder("tracker.frames")
+            .description("Frames of merged activities published to the tracker subscribers")
+            .register(meterRegistry);
+        this.messagesSaved = Counter
+            .builder("tracker.messages.saved")
+            .description("Messages to tracker subscribers not sent, thanks to publishing merged frames instead of every activity")
+            .register(meterRegistry);
     }
 
     @MessageMapping("/topic/activity")
-    @SendTo("/topic/tracker")
-    public ActivityDTO sendActivity(@Payload ActivityDTO activityDTO, StompHeaderAccessor stompHeaderAccessor, Principal principal) {
+    public void sendActivity(@Payload ActivityDTO activityDTO, StompHeaderAccessor stompHeaderAccessor, Principal principal) {
         activityDTO.setUserLogin(principal.getName());
         activityDTO.setSessionId(stompHeaderAccessor.getSessionId());
         activityDTO.setIpAddress(stompHeaderAccessor.getSessionAttributes().get(IP_ADDRESS).toString());
         activityDTO.setTime(Instant.now());
-        log.debug("Sending user tracking data {}", activityDTO);
-        return activityDTO;
+        log.debug("Queuing user tracking data {}", activityDTO);
+        enqueue(activityDTO);
     }
 
     @Override
@@ -41,6 +89,39 @@ public class ActivityService implements ApplicationListener<SessionDisconnectEve
         ActivityDTO activityDTO = new ActivityDTO();
         activityDTO.setSessionId(event.getSessionId());
         activityDTO.setPage("logout");
-        messagingTemplate.convertAndSend("/topic/tracker", activityDTO);
+        enqueue(activityDTO);
+    }
+
+    private void enqueue(ActivityDTO activityDTO) {
+        pending.put(activityDTO.getSessionId(), activityDTO);
+        received.incrementAndGet();
+        activities.increment();
+    }
+
+    /**
+     * Publish the activities merged since the last frame, if any.
+     */
+    @Scheduled(fixedDelayString = "${application.tracker.window-millis:250}")
+    public void publish() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long merged = received.getAndSet(0);
+        List<ActivityDTO> frame = new ArrayList<>(pending.size());
+        for (Map.Entry<String, ActivityDTO> activity : pending.entrySet()) {
+            // Only remove the activity taken, not a later one of the same session
+            if (pending.remove(activity.getKey(), activity.getValue())) {
+                frame.add(activity.getValue());
+            }
+        }
+        if (frame.isEmpty()) {
+            return;
+        }
+        messagingTemplate.convertAndSend(TRACKER_DESTINATION, frame);
+        frames.increment();
+        int subscribers = simpUserRegistry
+            .findSubscriptions(subscription -> TRACKER_DESTINATION.equals(subscription.getDestination()))
+            .size();
+        messagesSaved.increment(Math.max(merged - 1, 0) * (double) subscribers);
     }
 }
@@ -0,0 +1,90 @@
+package matchless.web.websocket;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor of a message channel running the messages of a destination on one of several single-threaded shards,
+ * chosen by the hash of the destination.
+ * <p>
+ * Messages to different destinations are dispatched in parallel, while those to one destination keep their order.
+ * Messages without a destination are sharded by session, and other tasks by their own hash.
+ * <p>
+ * It is a {@link ThreadPoolTaskExecutor} only because message channels are configured with one; the pool of the
+ * superclass is left unused.
+ */
+public class DestinationShardedExecutor extends ThreadPoolTaskExecutor {
+
+    public static final String QUEUE_METER_NAME = "stomp.broker.shard.queue";
+
+    private final ThreadPoolExecutor[] shards;
+
+    /**
+     * @param shardCount the number of shards.
+     * @param threadNamePrefix the prefix of the shard thread names.
+     * @param meterRegistry the registry of the queue gauges of the shards.
+     */
+    public DestinationShardedExecutor(int shardCount, String threadNamePrefix, MeterRegistry meterRegistry) {
+        setThreadNamePrefix(threadNamePrefix);
+        this.shards = new ThreadPoolExecutor[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            ThreadPoolExecutor shard = new ThreadPoolExecutor(
+                1,
+                1,
+                0,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory(threadNamePrefix + i + "-")
+            );
+            Gauge
+                .builder(QUEUE_METER_NAME, shard, executor -> executor.getQueue().size())
+                .description("Messages waiting for their shard of the STOMP broker channel")
+                .tag("shard", Integer.toString(i))
+                .register(meterRegistry);
+            shards[i] = shard;
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        shardOf(task).execute(task);
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        return shardOf(task).submit(task);
+    }
+
+    @Override
+    public void shutdown() {
+        for (ExecutorService shard : shards) {
+            shard.shutdown();
+        }
+        super.shutdown();
+    }
+
+    ThreadPoolExecutor shardOf(Runnable task) {
+        Object key = task;
+        if (task instanceof MessageHandlingRunnable messageTask) {
+            Message<?> message = messageTask.getMessage();
+            key = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+            if (key == null) {
+                key = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+            }
+            if (key == null) {
+                key = task;
+            }
+        }
+        return shards[Math.floorMod(key.hashCode(), shards.length)];
+    }
+}
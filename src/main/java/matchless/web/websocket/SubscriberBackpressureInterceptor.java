@@ -0,0 +1,171 @@
+package matchless.web.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import matchless.config.ApplicationProperties;
+import matchless.config.ApplicationProperties.StompBroker.OverflowPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+/**
+ * Bounds the messages queued for each subscriber on the client outbound channel, so that one slow client cannot make
+ * the channel buffer without limit nor hold back the others.
+ * <p>
+ * The messages of a session are counted from when they are sent to the channel until they have been handed to its
+ * WebSocket session. Past {@code application.stomp-broker.subscriber-queue-capacity}, further messages to the session
+ * are dropped and, with the {@link OverflowPolicy#DISCONNECT} policy, the session is closed. Only broker messages are
+ * bounded: the replies to the client's own frames, such as {@code CONNECTED}, always go through.
+ * <p>
+ * A message handed to its session is no longer counted: the session buffers it while it sends an earlier one, a
+ * backlog bounded by the send limits of {@link matchless.config.WebsocketBrokerConfiguration}, with the same policy.
+ * <p>
+ * Also a {@link WebSocketHandlerDecoratorFactory}, to keep track of the sessions it may have to close. Only the messages
+ * of open sessions are counted, so that none is counted again once its session is closed.
+ */
+public class SubscriberBackpressureInterceptor implements ExecutorChannelInterceptor, WebSocketHandlerDecoratorFactory {
+
+    public static final String QUEUE_METER_NAME = "stomp.subscriber.queue";
+
+    private final Logger log = LoggerFactory.getLogger(SubscriberBackpressureInterceptor.class);
+
+    private final int capacity;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final Map<String, AtomicInteger> queued = new ConcurrentHashMap<>();
+
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+
+    private final DistributionSummary queueDepth;
+
+    private final Counter overflows;
+
+    public SubscriberBackpressureInterceptor(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.capacity = applicationProperties.getStompBroker().getSubscriberQueueCapacity();
+        this.overflowPolicy = applicationProperties.getStompBroker().getOverflowPolicy();
+        this.queueDepth = DistributionSummary
+            .builder(QUEUE_METER_NAME + ".depth")
+            .description("Messages queued for a subscriber, including the one being queued")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.overflows = Counter
+            .builder(QUEUE_METER_NAME + ".overflows")
+            .description("Messages not sent as their subscriber had too many queued")
+            .tag("policy", overflowPolicy.name().toLowerCase())
+            .register(meterRegistry);
+        Gauge
+            .builder(QUEUE_METER_NAME + ".max", queued, SubscriberBackpressureInterceptor::maxDepth)
+            .description("Messages queued for the subscriber with the most")
+            .register(meterRegistry);
+    }
+
+    private static double maxDepth(Map<String, AtomicInteger> queued) {
+        return queued.values().stream().mapToInt(AtomicInteger::get).max().orElse(0);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = boundedSessionId(message);
+        if (sessionId == null) {
+            return message;
+        }
+        AtomicInteger count = queued.get(sessionId);
+        if (count == null) {
+            // A closed session, whose messages are discarded anyway
+            return message;
+        }
+        int depth = count.incrementAndGet();
+        queueDepth.record(depth);
+        if (depth <= capacity) {
+            return message;
+        }
+        count.decrementAndGet();
+        overflows.increment();
+        if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+            disconnect(sessionId);
+        }
+        return null;
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        // A message the channel failed to dispatch will not be handled
+        if (!sent || ex != null) {
+            release(message);
+        }
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        release(message);
+    }
+
+    private void release(Message<?> message) {
+        String sessionId = boundedSessionId(message);
+        if (sessionId != null) {
+            AtomicInteger count = queued.get(sessionId);
+            if (count != null) {
+                count.decrementAndGet();
+            }
+        }
+    }
+
+    private static String boundedSessionId(Message<?> message) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return null;
+        }
+        return SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+    }
+
+    private void disconnect(String sessionId) {
+        WebSocketSession session = sessions.get(sessionId);
+        if (session == null || !session.isOpen()) {
+            return;
+        }
+        log.debug("Disconnecting WebSocket session {}, which has more than {} messages queued", sessionId, capacity);
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            log.debug("Could not close WebSocket session {}: {}", sessionId, e.getMessage());
+        }
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                sessions.put(session.getId(), session);
+                queued.put(session.getId(), new AtomicInteger());
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                try {
+                    super.afterConnectionClosed(session, closeStatus);
+                } finally {
+                    sessions.remove(session.getId());
+                    queued.remove(session.getId());
+                }
+            }
+        };
+    }
+}
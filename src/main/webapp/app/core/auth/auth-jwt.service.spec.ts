@@ -76,5 +76,36 @@ describe('Auth JWT', () => {
       // THEN
       expect(mockStorageService.clearAuthenticationToken).toHaveBeenCalled();
     });
+
+    it('should revoke the token on the server', () => {
+      // GIVEN
+      let completed = false;
+      mockStorageService.getAuthenticationToken = jest.fn(() => 'token');
+      mockStorageService.clearAuthenticationToken = jest.fn();
+
+      // WHEN
+      service.logout().subscribe({ complete: () => (completed = true) });
+      const request = httpMock.expectOne({ method: 'POST', url: 'api/logout' });
+      expect(request.request.headers.get('Authorization')).toEqual('Bearer token');
+      request.flush(null, { status: 204, statusText: 'No Content' });
+
+      // THEN
+      httpMock.verify();
+      expect(mockStorageService.clearAuthenticationToken).toHaveBeenCalled();
+      expect(completed).toBe(true);
+    });
+
+    it('should complete when the token can not be revoked', () => {
+      // GIVEN
+      let completed = false;
+      mockStorageService.getAuthenticationToken = jest.fn(() => 'expired');
+
+      // WHEN
+      service.logout().subscribe({ complete: () => (completed = true) });
+      httpMock.expectOne('api/logout').flush(null, { status: 401, statusText: 'Unauthorized' });
+
+      // THEN
+      expect(completed).toBe(true);
+    });
   });
 });
@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
-import { Observable } from 'rxjs';
-import { map } from 'rxjs/operators';
+import { HttpClient, HttpHeaders } from '@angular/common/http';
+import { EMPTY, Observable } from 'rxjs';
+import { catchError, ignoreElements, map } from 'rxjs/operators';
 
 import { Login } from 'app/login/login.model';
 import { ApplicationConfigService } from '../config/application-config.service';
@@ -29,11 +29,24 @@ export class AuthServerProvider {
       .pipe(map(response => this.authenticateSuccess(response, credentials.rememberMe)));
   }
 
+  /**
+   * Clears the token, and asks the server to revoke it so that a copy of it can not be used either.
+   * Completes once revoked, or if the token could not be revoked, as when it has already expired.
+   */
   logout(): Observable<void> {
-    return new Observable(observer => {
-      this.stateStorageService.clearAuthenticationToken();
-      observer.complete();
-    });
+    const token = this.getToken();
+    this.stateStorageService.clearAuthenticationToken();
+    if (!token) {
+      return EMPTY;
+    }
+    return this.http
+      .post<void>(this.applicationConfigService.getEndpointFor('api/logout'), null, {
+        headers: new HttpHeaders({ Authorization: `Bearer ${token}` }),
+      })
+      .pipe(
+        ignoreElements(),
+        catchError(() => EMPTY),
+      );
   }
 
   private authenticateSuccess(response: JwtToken, rememberMe: boolean): void {
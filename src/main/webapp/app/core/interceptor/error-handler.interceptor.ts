@@ -13,7 +13,7 @@ export class ErrorHandlerInterceptor implements HttpInterceptor {
     return next.handle(request).pipe(
       tap({
         error: (err: HttpErrorResponse) => {
-          if (!(err.status === 401 && (err.message === '' || err.url?.includes('api/account')))) {
+          if (!(err.status === 401 && (err.message === '' || err.url?.includes('api/account') || err.url?.includes('api/logout')))) {
             this.eventManager.broadcast(new EventWithContent('matchlessApp.httpError', err));
           }
         },
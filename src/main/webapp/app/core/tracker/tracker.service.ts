@@ -2,7 +2,7 @@ import { Injectable } from '@angular/core';
 import { Location } from '@angular/common';
 import { Router, NavigationEnd, Event } from '@angular/router';
 import { Subscription, Observer } from 'rxjs';
-import { filter, map } from 'rxjs/operators';
+import { filter, map, mergeMap } from 'rxjs/operators';
 
 import SockJS from 'sockjs-client';
 import { RxStomp } from '@stomp/rx-stomp';
@@ -64,8 +64,11 @@ export class TrackerService {
     return (
       this.stomp
         .watch(DESTINATION_TRACKER)
-        // eslint-disable-next-line @typescript-eslint/no-unsafe-return
-        .pipe(map(imessage => JSON.parse(imessage.body)))
+        // each frame holds the activities merged by the server over a short window
+        .pipe(
+          map(imessage => JSON.parse(imessage.body) as TrackerActivity[]),
+          mergeMap(activities => activities),
+        )
         .subscribe(observer)
     );
   }
@@ -0,0 +1,74 @@
+package gatling.simulations;
+
+import static io.gatling.javaapi.core.CoreDsl.StringBody;
+import static io.gatling.javaapi.core.CoreDsl.constantConcurrentUsers;
+import static io.gatling.javaapi.core.CoreDsl.exec;
+import static io.gatling.javaapi.core.CoreDsl.global;
+import static io.gatling.javaapi.core.CoreDsl.rampConcurrentUsers;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.header;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Concurrency test of the API, to compare the default mode with the {@code virtual-threads} profile.
+ * <p>
+ * Holds a given number of concurrent users, each authenticating once then reading materials and its account without
+ * pause, so that throughput and latency percentiles show how many blocked requests the server keeps in flight. Run it
+ * against both modes with the same {@code users}: with platform threads, requests beyond the servlet thread pool
+ * queue, while virtual threads keep them in flight up to the database connection pool.
+ * <p>
+ * All the users log in as admin from the same address, so run the server with the login throttle disabled.
+ */
+public class ConcurrencyGatlingTest extends Simulation {
+
+    String baseURL = Optional.ofNullable(System.getProperty("baseURL")).orElse("http://localhost:8080");
+
+    HttpProtocolBuilder httpConf = http
+        .baseUrl(baseURL)
+        .acceptHeader("application/json")
+        .acceptEncodingHeader("gzip, deflate")
+        .connectionHeader("keep-alive")
+        .shareConnections();
+
+    Map<String, String> headers_http_authentication = Map.of("Content-Type", "application/json", "Accept", "application/json");
+
+    Map<String, String> headers_http_authenticated = Map.of("Accept", "application/json", "Authorization", "${access_token}");
+
+    ChainBuilder scn = exec(
+        http("Authentication")
+            .post("/api/authenticate")
+            .headers(headers_http_authentication)
+            .body(StringBody("{\"username\":\"admin\", \"password\":\"admin\"}"))
+            .asJson()
+            .check(header("Authorization").saveAs("access_token"))
+    )
+        .exitHereIfFailed()
+        .during(Duration.ofMinutes(Integer.getInteger("duration", 3)))
+        .on(
+            exec(http("Get all materials").get("/api/materials?size=20").headers(headers_http_authenticated).check(status().is(200)))
+                .exec(http("Get account").get("/api/account").headers(headers_http_authenticated).check(status().is(200)))
+        );
+
+    ScenarioBuilder users = scenario("Concurrent API reads").exec(scn);
+
+    {
+        int concurrentUsers = Integer.getInteger("users", 1000);
+        setUp(
+            users.injectClosed(
+                rampConcurrentUsers(0).to(concurrentUsers).during(Duration.ofMinutes(Integer.getInteger("ramp", 1))),
+                constantConcurrentUsers(concurrentUsers).during(Duration.ofMinutes(Integer.getInteger("duration", 3)))
+            )
+        )
+            .protocols(httpConf)
+            .assertions(global().failedRequests().percent().lt(1.0));
+    }
+}
@@ -0,0 +1,44 @@
+package matchless.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link BloomFilter} utility class.
+ */
+class BloomFilterTest {
+
+    @Test
+    void testInsertedKeysAreAlwaysFound() {
+        BloomFilter filter = BloomFilter.create(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filter.put("user-" + i);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(filter.mightContain("user-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void testFalsePositiveRateStaysNearTarget() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("random-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void testInvalidProbabilityIsRejected() {
+        assertThatIllegalArgumentException().isThrownBy(() -> BloomFilter.create(10, 0));
+        assertThatIllegalArgumentException().isThrownBy(() -> BloomFilter.create(10, 1));
+    }
+}
@@ -0,0 +1,60 @@
+package matchless.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class OffHeapStoreTest {
+
+    @Test
+    void storedValuesAreReadBack() {
+        OffHeapStore<String> store = new OffHeapStore<>(1024, 256);
+
+        store.put("a", bytes("first"));
+        store.put("b", bytes("second"));
+        store.put("a", bytes("third"));
+
+        assertThat(store.get("a")).isEqualTo(bytes("third"));
+        assertThat(store.get("b")).isEqualTo(bytes("second"));
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.usedBytes()).isEqualTo(bytes("third").length + bytes("second").length);
+    }
+
+    @Test
+    void takenValuesAreRemoved() {
+        OffHeapStore<String> store = new OffHeapStore<>(1024, 256);
+        store.put("a", bytes("value"));
+
+        assertThat(store.take("a")).isEqualTo(bytes("value"));
+        assertThat(store.take("a")).isNull();
+        assertThat(store.contains("a")).isFalse();
+        assertThat(store.usedBytes()).isZero();
+    }
+
+    @Test
+    void oldestSlabIsRecycledWhenFull() {
+        OffHeapStore<Integer> store = new OffHeapStore<>(4 * 64, 64);
+        for (int i = 0; i < 20; i++) {
+            store.put(i, new byte[32]);
+        }
+
+        assertThat(store.allocatedBytes()).isEqualTo(4 * 64);
+        assertThat(store.contains(0)).isFalse();
+        assertThat(store.contains(19)).isTrue();
+        assertThat(store.size()).isLessThanOrEqualTo(8);
+    }
+
+    @Test
+    void valuesLargerThanASlabAreNotStored() {
+        OffHeapStore<String> store = new OffHeapStore<>(1024, 16);
+        store.put("a", bytes("small"));
+
+        assertThat(store.put("a", new byte[17])).isFalse();
+        assertThat(store.contains("a")).isFalse();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,111 @@
+package matchless.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    @Test
+    void concurrentLoadsOfTheSameKeyRunTheLoaderOnce() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", registry);
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        AtomicInteger loaderRuns = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() ->
+                singleFlight.load("key", () -> {
+                    loaderRuns.incrementAndGet();
+                    loaderStarted.countDown();
+                    awaitQuietly(releaseLoader);
+                    return "value";
+                })
+            );
+            assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<String> follower = executor.submit(() -> singleFlight.load("key", () -> "other"));
+            while (registry.counter(SingleFlight.LOADS_METER_NAME, "cache", "test", "result", "coalesced").count() == 0) {
+                Thread.onSpinWait();
+            }
+            releaseLoader.countDown();
+
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            assertThat(loaderRuns).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentLoadsOfTheSameKeyGetTheirOwnCopy() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SingleFlight<String, List<String>> singleFlight = new SingleFlight<>("test", registry, ArrayList::new);
+        List<String> loaded = new ArrayList<>(List.of("value"));
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<String>> leader = executor.submit(() ->
+                singleFlight.load("key", () -> {
+                    loaderStarted.countDown();
+                    awaitQuietly(releaseLoader);
+                    return loaded;
+                })
+            );
+            assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<List<String>> follower = executor.submit(() -> singleFlight.load("key", List::of));
+            while (registry.counter(SingleFlight.LOADS_METER_NAME, "cache", "test", "result", "coalesced").count() == 0) {
+                Thread.onSpinWait();
+            }
+            releaseLoader.countDown();
+
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isSameAs(loaded);
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isNotSameAs(loaded).containsExactly("value");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void completedLoadsAreNotRetained() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", new SimpleMeterRegistry());
+
+        assertThat(singleFlight.load("key", () -> "first")).isEqualTo("first");
+        assertThat(singleFlight.load("key", () -> "second")).isEqualTo("second");
+    }
+
+    @Test
+    void loaderFailuresArePropagated() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", new SimpleMeterRegistry());
+
+        assertThatThrownBy(() ->
+                singleFlight.load("key", () -> {
+                    throw new IllegalStateException("boom");
+                })
+            )
+            .isInstanceOf(IllegalStateException.class);
+        assertThat(singleFlight.load("key", () -> "value")).isEqualTo("value");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
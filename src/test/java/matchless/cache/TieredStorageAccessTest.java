@@ -0,0 +1,145 @@
+package matchless.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.cache.Cache;
+import javax.cache.configuration.CacheEntryListenerConfiguration;
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryRemovedListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Unit tests for the {@link TieredStorageAccess} class, with the removal events of the heap tier delivered by hand, in
+ * the order Caffeine may deliver them asynchronously.
+ */
+class TieredStorageAccessTest {
+
+    private final Map<Object, Object> heap = new ConcurrentHashMap<>();
+
+    private OffHeapStore<Object> offHeapStore;
+
+    private TieredStorageAccess storageAccess;
+
+    private CacheEntryRemovedListener<Object, Object> spillListener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        Cache<Object, Object> cache = mock(Cache.class);
+        when(cache.get(any())).thenAnswer(invocation -> heap.get(invocation.getArgument(0)));
+        when(cache.putIfAbsent(any(), any()))
+            .thenAnswer(invocation -> heap.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null);
+        when(cache.remove(any(), any())).thenAnswer(invocation -> heap.remove(invocation.getArgument(0), invocation.getArgument(1)));
+        when(cache.remove(any())).thenAnswer(invocation -> heap.remove(invocation.getArgument(0)) != null);
+        when(cache.containsKey(any())).thenAnswer(invocation -> heap.containsKey(invocation.getArgument(0)));
+        doAnswer(invocation -> heap.put(invocation.getArgument(0), invocation.getArgument(1))).when(cache).put(any(), any());
+        doAnswer(invocation -> {
+                heap.clear();
+                return null;
+            })
+            .when(cache)
+            .clear();
+        offHeapStore = new OffHeapStore<>(64 * 1024, 4 * 1024);
+        storageAccess = new TieredStorageAccess(cache, offHeapStore);
+
+        ArgumentCaptor<CacheEntryListenerConfiguration<Object, Object>> configuration = ArgumentCaptor.forClass(
+            CacheEntryListenerConfiguration.class
+        );
+        verify(cache).registerCacheEntryListener(configuration.capture());
+        spillListener = (CacheEntryRemovedListener<Object, Object>) configuration.getValue().getCacheEntryListenerFactory().create();
+    }
+
+    @Test
+    void evictedEntriesAreSpilledAndPromoted() {
+        storageAccess.putIntoCache("key", "value", null);
+
+        evictFromHeap("key");
+
+        assertThat(offHeapStore.contains("key")).isTrue();
+        assertThat(storageAccess.getFromCache("key", null)).isEqualTo("value");
+        assertThat(heap).containsKey("key");
+        assertThat(offHeapStore.contains("key")).isFalse();
+        assertThat(storageAccess.getFromCache("key", null)).isEqualTo("value");
+    }
+
+    @Test
+    void spillArrivingAfterANewerWriteIsDropped() {
+        storageAccess.putIntoCache("key", "old", null);
+        Object old = heap.remove("key");
+
+        storageAccess.putIntoCache("key", "new", null);
+        spill("key", old);
+
+        assertThat(offHeapStore.contains("key")).isFalse();
+        assertThat(storageAccess.getFromCache("key", null)).isEqualTo("new");
+    }
+
+    @Test
+    void spillArrivingAfterTheNewerValueIsSpilledIsNotReadBack() {
+        storageAccess.putIntoCache("key", "old", null);
+        Object old = heap.remove("key");
+        storageAccess.putIntoCache("key", "new", null);
+
+        evictFromHeap("key");
+        spill("key", old);
+
+        assertThat(storageAccess.getFromCache("key", null)).isEqualTo("new");
+    }
+
+    @Test
+    void spillArrivingAfterAnEvictionIsDropped() {
+        storageAccess.putIntoCache("key", "value", null);
+        Object evicted = heap.remove("key");
+
+        storageAccess.evictData("key");
+        spill("key", evicted);
+
+        assertThat(offHeapStore.contains("key")).isFalse();
+        assertThat(storageAccess.getFromCache("key", null)).isNull();
+    }
+
+    @Test
+    void spillArrivingAfterClearingIsDropped() {
+        storageAccess.putIntoCache("key", "value", null);
+        Object evicted = heap.remove("key");
+
+        storageAccess.evictData();
+        spill("key", evicted);
+
+        assertThat(storageAccess.getFromCache("key", null)).isNull();
+    }
+
+    @Test
+    void onlyRemovalsAreRemembered() {
+        for (int i = 0; i < 100; i++) {
+            storageAccess.putIntoCache(i, "value", null);
+        }
+        assertThat(storageAccess.rememberedRemovals()).isZero();
+
+        storageAccess.evictData(1);
+
+        assertThat(storageAccess.rememberedRemovals()).isEqualTo(1);
+    }
+
+    private void evictFromHeap(Object key) {
+        spill(key, heap.remove(key));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void spill(Object key, Object value) {
+        CacheEntryEvent<Object, Object> event = mock(CacheEntryEvent.class);
+        when(event.getKey()).thenReturn(key);
+        when(event.getOldValue()).thenReturn(value);
+        spillListener.onRemoved(List.of(event));
+    }
+}
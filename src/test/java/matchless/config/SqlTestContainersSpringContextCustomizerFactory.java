@@ -45,8 +45,16 @@ public class SqlTestContainersSpringContextCustomizerFactory implements ContextC
                 testValues = testValues.and("spring.datasource.url=" + prodTestContainer.getTestContainer().getJdbcUrl() + "");
                 testValues = testValues.and("spring.datasource.username=" + prodTestContainer.getTestContainer().getUsername());
                 testValues = testValues.and("spring.datasource.password=" + prodTestContainer.getTestContainer().getPassword());
+                testValues = testValues.and("spring.r2dbc.url=" + r2dbcUrl(prodTestContainer.getTestContainer().getJdbcUrl()));
+                testValues = testValues.and("spring.r2dbc.username=" + prodTestContainer.getTestContainer().getUsername());
+                testValues = testValues.and("spring.r2dbc.password=" + prodTestContainer.getTestContainer().getPassword());
             }
             testValues.applyTo(context);
         };
     }
+
+    private static String r2dbcUrl(String jdbcUrl) {
+        int query = jdbcUrl.indexOf('?');
+        return "r2dbc:" + (query < 0 ? jdbcUrl : jdbcUrl.substring(0, query)).substring("jdbc:".length());
+    }
 }
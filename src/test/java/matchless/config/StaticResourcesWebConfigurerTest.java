@@ -44,6 +44,17 @@ class StaticResourcesWebConfigurerTest {
         }
     }
 
+    @Test
+    void shouldServeHashedResourcesAsImmutable() {
+        staticResourcesWebConfiguration.addResourceHandlers(resourceHandlerRegistry);
+
+        for (String testingPath : HASHED_RESOURCE_PATHS) {
+            assertThat(resourceHandlerRegistry.hasMappingForPattern(testingPath)).isTrue();
+        }
+        assertThat(staticResourcesWebConfiguration.getHashedCacheControl().getHeaderValue())
+            .isEqualTo("max-age=31536000, public, immutable");
+    }
+
     @Test
     void shouldInitializeResourceHandlerWithCacheControlAndLocations() {
         CacheControl ccExpected = CacheControl.maxAge(5, TimeUnit.DAYS).cachePublic();
@@ -0,0 +1,51 @@
+package matchless.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import matchless.security.AuthenticationPhaseTimers.Phase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link AuthenticationPhaseTimers} class.
+ */
+class AuthenticationPhaseTimersTest {
+
+    @Test
+    void recordsPhasesByOutcome() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AuthenticationPhaseTimers timers = new AuthenticationPhaseTimers(registry);
+
+        assertThat(timers.record(Phase.PASSWORD_MATCH, () -> true)).isTrue();
+        assertThatThrownBy(() ->
+                timers.record(
+                    Phase.USER_LOOKUP,
+                    () -> {
+                        throw new IllegalStateException();
+                    }
+                )
+            )
+            .isInstanceOf(IllegalStateException.class);
+
+        assertThat(registry.get(AuthenticationPhaseTimers.METER_NAME).tags("phase", "password-match", "outcome", "success").timer().count())
+            .isEqualTo(1);
+        assertThat(registry.get(AuthenticationPhaseTimers.METER_NAME).tags("phase", "user-lookup", "outcome", "failure").timer().count())
+            .isEqualTo(1);
+        assertThat(registry.get(AuthenticationPhaseTimers.METER_NAME).tags("phase", "user-lookup", "outcome", "success").timer().count())
+            .isZero();
+    }
+
+    @Test
+    void recordsFailedResultsAsFailures() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AuthenticationPhaseTimers timers = new AuthenticationPhaseTimers(registry);
+
+        assertThat(timers.record(Phase.PASSWORD_MATCH, () -> false, Boolean::booleanValue)).isFalse();
+
+        assertThat(registry.get(AuthenticationPhaseTimers.METER_NAME).tags("phase", "password-match", "outcome", "failure").timer().count())
+            .isEqualTo(1);
+        assertThat(registry.get(AuthenticationPhaseTimers.METER_NAME).tags("phase", "password-match", "outcome", "success").timer().count())
+            .isZero();
+    }
+}
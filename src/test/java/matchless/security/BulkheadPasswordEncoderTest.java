@@ -0,0 +1,173 @@
+package matchless.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+/**
+ * Unit tests for the {@link BulkheadPasswordEncoder} class.
+ */
+class BulkheadPasswordEncoderTest {
+
+    @Test
+    void delegatesHashing() {
+        try (BulkheadPasswordEncoder encoder = encoder(NoOpPasswordEncoder.getInstance())) {
+            assertThat(encoder.encode("password")).isEqualTo("password");
+            assertThat(encoder.matches("password", "password")).isTrue();
+            assertThat(encoder.matches("password", "other")).isFalse();
+        }
+    }
+
+    @Test
+    void refusesHashesBeyondTheQueue() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new BlockingPasswordEncoder(started, release);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try (BulkheadPasswordEncoder encoder = encoder(blocking)) {
+            callers.submit(() -> encoder.matches("a", "a"));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            callers.submit(() -> encoder.matches("b", "b"));
+            while (encoder.getQueueDepth() == 0) {
+                Thread.onSpinWait();
+            }
+
+            assertThatThrownBy(() -> encoder.matches("c", "c"))
+                .isInstanceOfSatisfying(
+                    AuthenticationThrottledException.class,
+                    e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(2)
+                );
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void skipsTheUpgradeOfALoginWhileSaturated() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        StaleHashPasswordEncoder delegate = new StaleHashPasswordEncoder(started, release);
+        try (BulkheadPasswordEncoder encoder = encoder(delegate)) {
+            // Other logins take the thread and the queue once the password of this one has matched
+            delegate.beforeUpgrade =
+                () -> {
+                    callers.submit(() -> encoder.matches(StaleHashPasswordEncoder.BLOCKING, StaleHashPasswordEncoder.BLOCKING));
+                    try {
+                        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    callers.submit(() -> encoder.matches(StaleHashPasswordEncoder.BLOCKING, StaleHashPasswordEncoder.BLOCKING));
+                    while (encoder.getQueueDepth() == 0) {
+                        Thread.onSpinWait();
+                    }
+                };
+            InMemoryUserDetailsManager users = new InMemoryUserDetailsManager(
+                User.withUsername("user").password("stale:password").authorities("ROLE_USER").build()
+            );
+            DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+            provider.setPasswordEncoder(encoder);
+            provider.setUserDetailsService(users);
+            provider.setUserDetailsPasswordService(users);
+
+            Authentication authentication = provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "password"));
+
+            assertThat(authentication.isAuthenticated()).isTrue();
+            assertThat(users.loadUserByUsername("user").getPassword()).isEqualTo("stale:password");
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    private static BulkheadPasswordEncoder encoder(PasswordEncoder delegate) {
+        return new BulkheadPasswordEncoder(delegate, 1, 1, 2, new SimpleMeterRegistry());
+    }
+
+    private static final class BlockingPasswordEncoder implements PasswordEncoder {
+
+        private final CountDownLatch started;
+
+        private final CountDownLatch release;
+
+        private BlockingPasswordEncoder(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            started.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Encodes {@code password} as {@code current:password}, and tells to upgrade the {@code stale:} ones.
+     */
+    private static final class StaleHashPasswordEncoder implements PasswordEncoder {
+
+        private static final String BLOCKING = "blocking";
+
+        private final CountDownLatch started;
+
+        private final CountDownLatch release;
+
+        private Runnable beforeUpgrade = () -> {};
+
+        private StaleHashPasswordEncoder(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "current:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            if (BLOCKING.contentEquals(rawPassword)) {
+                started.countDown();
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return encodedPassword.substring(encodedPassword.indexOf(':') + 1).contentEquals(rawPassword);
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            beforeUpgrade.run();
+            return encodedPassword.startsWith("stale:");
+        }
+    }
+}
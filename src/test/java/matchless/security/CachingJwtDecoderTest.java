@@ -0,0 +1,81 @@
+package matchless.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+/**
+ * Unit tests for the {@link CachingJwtDecoder} class.
+ */
+class CachingJwtDecoderTest {
+
+    private JwtDecoder delegate;
+
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    public void setup() {
+        delegate = mock(JwtDecoder.class);
+        decoder = new CachingJwtDecoder(delegate, 100, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void verifiesATokenOnlyOnce() {
+        Jwt jwt = jwt("token", Instant.now().plusSeconds(60));
+        when(delegate.decode("token")).thenReturn(jwt);
+
+        assertThat(decoder.decode("token")).isSameAs(jwt);
+        assertThat(decoder.decode("token")).isSameAs(jwt);
+
+        verify(delegate, times(1)).decode("token");
+    }
+
+    @Test
+    void doesNotCacheInvalidTokens() {
+        when(delegate.decode("invalid")).thenThrow(new BadJwtException("Invalid signature"));
+
+        assertThatThrownBy(() -> decoder.decode("invalid")).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> decoder.decode("invalid")).isInstanceOf(BadJwtException.class);
+
+        verify(delegate, times(2)).decode("invalid");
+    }
+
+    @Test
+    void verifiesAgainAfterEviction() {
+        when(delegate.decode("token")).thenReturn(jwt("token", Instant.now().plusSeconds(60)));
+
+        decoder.decode("token");
+        decoder.evict("token");
+        decoder.decode("token");
+
+        verify(delegate, times(2)).decode("token");
+    }
+
+    @Test
+    void doesNotKeepExpiredTokens() {
+        when(delegate.decode("token")).thenReturn(jwt("token", Instant.now().minusSeconds(1)));
+
+        decoder.decode("token");
+        decoder.decode("token");
+
+        verify(delegate, times(2)).decode("token");
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt
+            .withTokenValue(token)
+            .header("alg", "HS512")
+            .subject("user")
+            .issuedAt(expiresAt.minusSeconds(120))
+            .expiresAt(expiresAt)
+            .build();
+    }
+}
@@ -0,0 +1,61 @@
+package matchless.security;
+
+import static matchless.security.SecurityUtils.AUTHORITIES_KEY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Unit tests for the {@link InternedAuthoritiesConverter} class.
+ */
+class InternedAuthoritiesConverterTest {
+
+    private final InternedAuthoritiesConverter converter = new InternedAuthoritiesConverter(AUTHORITIES_KEY, 2);
+
+    @Test
+    void parsesSpaceSeparatedAuthorities() {
+        assertThat(converter.convert(jwt("ROLE_ADMIN ROLE_USER")))
+            .containsExactly(new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("ROLE_USER"));
+    }
+
+    @Test
+    void parsesAuthorityCollections() {
+        assertThat(converter.convert(jwt(List.of("ROLE_ADMIN")))).containsExactly(new SimpleGrantedAuthority("ROLE_ADMIN"));
+    }
+
+    @Test
+    void sharesTheAuthoritiesOfEqualClaims() {
+        Collection<GrantedAuthority> first = converter.convert(jwt(new String("ROLE_USER")));
+        Collection<GrantedAuthority> second = converter.convert(jwt(new String("ROLE_USER")));
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void keepsAtMostMaxEntriesClaims() {
+        converter.convert(jwt("ROLE_A"));
+        converter.convert(jwt("ROLE_B"));
+
+        Collection<GrantedAuthority> first = converter.convert(jwt("ROLE_C"));
+        Collection<GrantedAuthority> second = converter.convert(jwt("ROLE_C"));
+
+        assertThat(second).isEqualTo(first).isNotSameAs(first);
+    }
+
+    @Test
+    void returnsNoAuthoritiesWithoutTheClaim() {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "HS512").subject("user").issuedAt(Instant.now()).build();
+
+        assertThat(converter.convert(jwt)).isEmpty();
+    }
+
+    private static Jwt jwt(Object authorities) {
+        return Jwt.withTokenValue("token").header("alg", "HS512").subject("user").claim(AUTHORITIES_KEY, authorities).build();
+    }
+}
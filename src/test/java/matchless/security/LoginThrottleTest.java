@@ -0,0 +1,100 @@
+package matchless.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicLong;
+import matchless.config.ApplicationProperties;
+import matchless.management.SecurityMetersService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link LoginThrottle} class.
+ */
+class LoginThrottleTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private ApplicationProperties.LoginThrottle properties;
+
+    private MeterRegistry meterRegistry;
+
+    private LoginThrottle loginThrottle;
+
+    @BeforeEach
+    public void setup() {
+        properties = new ApplicationProperties.LoginThrottle();
+        properties.setMaxAttemptsPerLogin(3);
+        properties.setMaxAttemptsPerAddress(5);
+        properties.setWindowSeconds(60);
+        meterRegistry = new SimpleMeterRegistry();
+        loginThrottle = new LoginThrottle(properties, new SecurityMetersService(meterRegistry), meterRegistry, now::get);
+    }
+
+    @Test
+    void refusesAttemptsOverTheLoginBudget() {
+        for (int i = 0; i < 3; i++) {
+            loginThrottle.acquire("user", "10.0.0." + i);
+        }
+
+        assertThatThrownBy(() -> loginThrottle.acquire("USER", "10.0.0.9"))
+            .isInstanceOf(AuthenticationThrottledException.class)
+            .extracting(e -> ((AuthenticationThrottledException) e).getRetryAfterSeconds())
+            .isEqualTo(60L);
+        assertThatCode(() -> loginThrottle.acquire("other", "10.0.0.9")).doesNotThrowAnyException();
+        assertThat(throttled("login")).isEqualTo(1);
+    }
+
+    @Test
+    void refusesAttemptsOverTheAddressBudget() {
+        for (int i = 0; i < 5; i++) {
+            loginThrottle.acquire("user" + i, "10.0.0.1");
+        }
+
+        assertThatThrownBy(() -> loginThrottle.acquire("user9", "10.0.0.1")).isInstanceOf(AuthenticationThrottledException.class);
+        assertThat(throttled("address")).isEqualTo(1);
+    }
+
+    @Test
+    void previousAttemptsFadeOutAsTheWindowSlides() {
+        now.set(60_000);
+        for (int i = 0; i < 3; i++) {
+            loginThrottle.acquire("user", "10.0.0.1");
+        }
+
+        // Half-way through the next window, the previous window weighs 1.5 attempts
+        now.set(150_000);
+        loginThrottle.acquire("user", "10.0.0.1");
+        loginThrottle.acquire("user", "10.0.0.1");
+        assertThatThrownBy(() -> loginThrottle.acquire("user", "10.0.0.1")).isInstanceOf(AuthenticationThrottledException.class);
+
+        // Two windows later, nothing is left
+        now.set(240_000);
+        assertThatCode(() -> loginThrottle.acquire("user", "10.0.0.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void acceptsEverythingWhenDisabled() {
+        properties.setEnabled(false);
+        loginThrottle = new LoginThrottle(properties, new SecurityMetersService(meterRegistry), meterRegistry, now::get);
+
+        assertThatCode(() -> {
+                for (int i = 0; i < 10; i++) {
+                    loginThrottle.acquire("user", "10.0.0.1");
+                }
+            })
+            .doesNotThrowAnyException();
+    }
+
+    private double throttled(String key) {
+        return meterRegistry
+            .get(SecurityMetersService.THROTTLED_LOGINS_METER_NAME)
+            .tag(SecurityMetersService.THROTTLED_LOGINS_METER_KEY_DIMENSION, key)
+            .counter()
+            .count();
+    }
+}
@@ -0,0 +1,64 @@
+package matchless.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link TokenRevocationList} class.
+ */
+class TokenRevocationListTest {
+
+    private final TokenRevocationList tokenRevocationList = new TokenRevocationList(Duration.ofHours(1), 100, 0.01, Duration.ofMinutes(1));
+
+    @Test
+    void revokedTokensAreRevoked() {
+        Instant expiresAt = Instant.now().plusSeconds(600);
+        tokenRevocationList.revoke("revoked", expiresAt);
+
+        assertThat(tokenRevocationList.isRevoked("revoked", expiresAt)).isTrue();
+        assertThat(tokenRevocationList.isRevoked("other", expiresAt)).isFalse();
+    }
+
+    @Test
+    void otherTokensAreNotRevokedDespiteFalsePositives() {
+        Instant expiresAt = Instant.now().plusSeconds(600);
+        // Far over the capacity of the Bloom filter, so that it answers "maybe" to most identifiers
+        for (int i = 0; i < 10_000; i++) {
+            tokenRevocationList.revoke("revoked-" + i, expiresAt);
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(tokenRevocationList.isRevoked("other-" + i, expiresAt)).isFalse();
+        }
+    }
+
+    @Test
+    void expiredTokensArePurged() {
+        Instant now = Instant.parse("2026-01-01T12:30:00Z");
+        tokenRevocationList.revoke("expired", now.minus(Duration.ofHours(1)));
+        tokenRevocationList.revoke("live", now.plus(Duration.ofHours(1)));
+
+        tokenRevocationList.purge(now);
+
+        assertThat(tokenRevocationList.size()).isEqualTo(1);
+        assertThat(tokenRevocationList.isRevoked("live", now.plus(Duration.ofHours(1)))).isTrue();
+    }
+
+    @Test
+    void tokensAcceptedWithTheClockSkewAreNotPurged() {
+        Instant now = Instant.parse("2026-01-01T12:00:30Z");
+        Instant expiresAt = Instant.parse("2026-01-01T11:59:50Z");
+        tokenRevocationList.revoke("just-expired", expiresAt);
+
+        tokenRevocationList.purge(now);
+
+        assertThat(tokenRevocationList.isRevoked("just-expired", expiresAt)).isTrue();
+
+        tokenRevocationList.purge(now.plus(Duration.ofMinutes(1)));
+
+        assertThat(tokenRevocationList.size()).isZero();
+    }
+}
@@ -0,0 +1,100 @@
+package matchless.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Locale;
+import matchless.IntegrationTest;
+import matchless.domain.User;
+import matchless.repository.UserRepository;
+import matchless.web.rest.TestUtil;
+import matchless.web.rest.vm.LoginVM;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link UserLookupGuard} class, with users saved directly through the
+ * {@link UserRepository}, so that the guard only learns of them through the {@link UserLookupGuardAspect}.
+ */
+@AutoConfigureMockMvc
+@IntegrationTest
+@Transactional
+class UserLookupGuardIT {
+
+    private static final String LOGIN = "user-lookup-guard";
+
+    private static final String EMAIL = "user-lookup-guard@example.com";
+
+    private static final String PASSWORD = "test";
+
+    @Autowired
+    private UserLookupGuard userLookupGuard;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void userCreatedAfterANegativeLookupCanLogIn() throws Exception {
+        authenticate(LOGIN).andExpect(status().isUnauthorized());
+        assertThat(userLookupGuard.findOneWithAuthoritiesByLogin(LOGIN)).isEmpty();
+
+        saveUser();
+
+        authenticate(LOGIN).andExpect(status().isOk()).andExpect(jsonPath("$.id_token").isNotEmpty());
+    }
+
+    @Test
+    void userCreatedAfterTheFilterIsBuiltCanLogIn() throws Exception {
+        userLookupGuard.rebuild();
+        authenticate(LOGIN).andExpect(status().isUnauthorized());
+        authenticate(EMAIL).andExpect(status().isUnauthorized());
+
+        saveUser();
+
+        authenticate(LOGIN).andExpect(status().isOk());
+        authenticate(EMAIL.toUpperCase(Locale.ENGLISH)).andExpect(status().isOk());
+    }
+
+    @Test
+    void userCreatedWhileTheFilterIsRebuiltCanLogIn() throws Exception {
+        userLookupGuard.rebuild();
+        authenticate(LOGIN).andExpect(status().isUnauthorized());
+
+        saveUser();
+        userLookupGuard.rebuild();
+
+        authenticate(LOGIN).andExpect(status().isOk());
+    }
+
+    private void saveUser() {
+        User user = new User();
+        user.setLogin(LOGIN);
+        user.setEmail(EMAIL);
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode(PASSWORD));
+        userRepository.saveAndFlush(user);
+    }
+
+    private ResultActions authenticate(String username) throws Exception {
+        LoginVM login = new LoginVM();
+        login.setUsername(username);
+        login.setPassword(PASSWORD);
+        return mockMvc.perform(
+            post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login))
+        );
+    }
+}
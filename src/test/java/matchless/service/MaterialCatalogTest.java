@@ -0,0 +1,236 @@
+package matchless.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import matchless.config.ApplicationProperties;
+import matchless.domain.Material;
+import matchless.domain.MaterialMethod;
+import matchless.repository.MaterialMethodRepository;
+import matchless.repository.MaterialRepository;
+import matchless.service.event.EntityChangedEvent;
+import matchless.service.event.EntityChangedEvent.ChangeType;
+import matchless.web.filter.ResponseCacheFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+/**
+ * Unit tests for the {@link MaterialCatalog} class.
+ */
+class MaterialCatalogTest {
+
+    private MaterialRepository materialRepository;
+
+    private MaterialMethodRepository materialMethodRepository;
+
+    private MaterialService materialService;
+
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Runnable> updates = new ArrayList<>();
+
+    private MaterialCatalog materialCatalog;
+
+    @BeforeEach
+    public void setup() {
+        materialRepository = mock(MaterialRepository.class);
+        materialMethodRepository = mock(MaterialMethodRepository.class);
+        materialService = mock(MaterialService.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        materialCatalog =
+            new MaterialCatalog(
+                materialRepository,
+                materialMethodRepository,
+                materialService,
+                mock(MaterialMethodService.class),
+                transactionManager,
+                new ApplicationProperties(),
+                new SimpleMeterRegistry(),
+                updates::add
+            );
+
+        when(materialRepository.findAll()).thenReturn(List.of(material(1L, "one"), material(2L, "two"), material(3L, "three")));
+        when(materialMethodRepository.findAll()).thenReturn(List.of());
+    }
+
+    @Test
+    void delegatesToTheServiceUntilLoaded() {
+        Material material = material(1L, "one");
+        when(materialService.findOne(1L)).thenReturn(Optional.of(material));
+
+        assertThat(materialCatalog.isAvailable()).isFalse();
+        assertThat(materialCatalog.findMaterial(1L)).contains(material);
+    }
+
+    @Test
+    void servesReadsFromTheSnapshot() {
+        materialCatalog.refresh();
+
+        assertThat(materialCatalog.isAvailable()).isTrue();
+        assertThat(materialCatalog.findMaterial(2L)).map(Material::getName).contains("two");
+        assertThat(materialCatalog.findMaterial(4L)).isEmpty();
+
+        Page<Material> page = materialCatalog.findAllMaterials(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")));
+        assertThat(page.getContent()).extracting(Material::getId).containsExactly(3L, 2L);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        verifyNoInteractions(materialService);
+    }
+
+    @Test
+    void delegatesPagesNotSortedById() {
+        materialCatalog.refresh();
+        Pageable byName = PageRequest.of(0, 20, Sort.by("name"));
+
+        materialCatalog.findAllMaterials(byName);
+
+        verify(materialService).findAll(byName);
+    }
+
+    @Test
+    void appliesCommittedChanges() {
+        materialCatalog.refresh();
+        when(materialRepository.findAllById(List.of(2L))).thenReturn(List.of(material(2L, "updated")));
+        when(materialRepository.findAllById(List.of(3L))).thenReturn(List.of());
+        when(materialMethodRepository.findAllById(any())).thenReturn(List.of());
+
+        materialCatalog.onEntityChanged(new EntityChangedEvent(Material.class, 2L, ChangeType.UPDATED));
+        materialCatalog.onEntityChanged(new EntityChangedEvent(Material.class, 3L, ChangeType.DELETED));
+        runUpdates();
+
+        assertThat(materialCatalog.findMaterial(2L)).map(Material::getName).contains("updated");
+        assertThat(materialCatalog.findMaterial(3L)).isEmpty();
+        assertThat(materialCatalog.findAllMaterials(Pageable.unpaged()).getContent()).extracting(Material::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void readsDirtyRowsFromTheServiceUntilApplied() {
+        materialCatalog.refresh();
+        when(materialRepository.findAllById(List.of(2L))).thenReturn(List.of(material(2L, "updated")));
+        when(materialMethodRepository.findAllById(any())).thenReturn(List.of());
+        when(materialService.findOne(2L)).thenReturn(Optional.of(material(2L, "updated")));
+
+        materialCatalog.onEntityChanged(new EntityChangedEvent(Material.class, 2L, ChangeType.UPDATED));
+
+        assertThat(materialCatalog.findMaterial(2L)).map(Material::getName).contains("updated");
+        assertThat(materialCatalog.findMaterial(1L)).map(Material::getName).contains("one");
+        materialCatalog.findAllMaterials(Pageable.unpaged());
+        verify(materialService).findOne(2L);
+        verify(materialService).findAll(Pageable.unpaged());
+        verify(materialRepository, never()).findAllById(any());
+
+        runUpdates();
+        clearInvocations(materialService);
+
+        assertThat(materialCatalog.findMaterial(2L)).map(Material::getName).contains("updated");
+        assertThat(materialCatalog.findAllMaterials(Pageable.unpaged()).getContent()).hasSize(3);
+        verifyNoInteractions(materialService);
+    }
+
+    @Test
+    void disablesItselfWhenAnUpdateCannotStartATransaction() {
+        materialCatalog.refresh();
+        when(transactionManager.getTransaction(any())).thenThrow(new CannotCreateTransactionException("No connection"));
+
+        materialCatalog.onEntityChanged(new EntityChangedEvent(Material.class, 2L, ChangeType.UPDATED));
+        runUpdates();
+
+        assertThat(materialCatalog.isAvailable()).isFalse();
+    }
+
+    @Test
+    void leavesLazyAssociationsOut() {
+        Material material = material(1L, "one");
+        when(materialMethodRepository.findAll()).thenReturn(List.of(new MaterialMethod().id(10L).name(material)));
+
+        materialCatalog.refresh();
+
+        assertThat(materialCatalog.findMaterial(1L).orElseThrow().getMethods()).isNull();
+        assertThat(materialCatalog.findMaterialMethod(10L).orElseThrow().getName().getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void marksRowsDirtyBeforeTheResponseCacheEvicts() throws Exception {
+        materialCatalog.refresh();
+        when(materialService.findOne(2L)).thenReturn(Optional.of(material(2L, "updated")));
+        ResponseCacheFilter responseCache = new ResponseCacheFilter(
+            new ApplicationProperties(),
+            new ObjectMapper(),
+            new SimpleMeterRegistry()
+        );
+        FilterChain chain = (request, response) -> {
+            response.setContentType("application/json");
+            String name = materialCatalog.findMaterial(2L).map(Material::getName).orElseThrow();
+            response.getOutputStream().write(name.getBytes(StandardCharsets.UTF_8));
+        };
+        assertThat(get(responseCache, chain)).isEqualTo("two");
+        EntityChangedEvent event = new EntityChangedEvent(Material.class, 2L, ChangeType.UPDATED);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            materialCatalog.onEntityChanged(event);
+            // As the after-commit listener of the response cache, which has the default listener order
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public int getOrder() {
+                        return 0;
+                    }
+
+                    @Override
+                    public void afterCommit() {
+                        responseCache.onEntityChanged(event);
+                        try {
+                            get(responseCache, chain);
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                }
+            );
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationManager.unbindResourceIfPossible(materialCatalog);
+        }
+
+        assertThat(get(responseCache, chain)).isEqualTo("updated");
+    }
+
+    private static String get(ResponseCacheFilter responseCache, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        responseCache.doFilter(new MockHttpServletRequest("GET", "/api/materials/2"), response, chain);
+        return response.getContentAsString();
+    }
+
+    private void runUpdates() {
+        List<Runnable> scheduled = new ArrayList<>(updates);
+        updates.clear();
+        scheduled.forEach(Runnable::run);
+    }
+
+    private static Material material(Long id, String name) {
+        return new Material().id(id).name(name);
+    }
+}
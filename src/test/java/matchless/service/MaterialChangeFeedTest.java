@@ -0,0 +1,143 @@
+package matchless.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import matchless.config.ApplicationProperties;
+import matchless.domain.Material;
+import matchless.domain.MaterialMethod;
+import matchless.service.event.EntityChangedEvent;
+import matchless.service.event.EntityChangedEvent.ChangeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link MaterialChangeFeed} class.
+ */
+class MaterialChangeFeedTest {
+
+    private ApplicationProperties properties;
+
+    private MaterialChangeFeed feed;
+
+    @BeforeEach
+    public void setup() {
+        properties = new ApplicationProperties();
+        properties.getChangeFeed().setHistorySize(3);
+        properties.getChangeFeed().setSubscriberBufferSize(2);
+        feed = new MaterialChangeFeed(properties, Runnable::run);
+    }
+
+    @Test
+    void coalescesChangesToAnEntityUntilTheFlush() {
+        RecordingListener listener = new RecordingListener();
+        feed.subscribe(null, listener);
+
+        change(Material.class, 1L, ChangeType.CREATED);
+        change(Material.class, 1L, ChangeType.UPDATED);
+        change(MaterialMethod.class, 1L, ChangeType.UPDATED);
+        change(MaterialMethod.class, 1L, ChangeType.DELETED);
+        change(Material.class, 2L, ChangeType.CREATED);
+        change(Material.class, 2L, ChangeType.DELETED);
+        feed.flush();
+
+        assertThat(listener.received).containsExactly("material 1 CREATED", "materialMethod 1 DELETED");
+    }
+
+    @Test
+    void resumesAfterTheLastEventId() {
+        RecordingListener first = new RecordingListener();
+        feed.subscribe(null, first);
+        change(Material.class, 1L, ChangeType.UPDATED);
+        feed.flush();
+        change(Material.class, 2L, ChangeType.UPDATED);
+        feed.flush();
+
+        RecordingListener resumed = new RecordingListener();
+        feed.subscribe(first.lastEventId - 1, resumed);
+
+        assertThat(resumed.received).containsExactly("material 2 UPDATED");
+    }
+
+    @Test
+    void resyncsWhenTheLastEventIdIsNoLongerKept() {
+        RecordingListener first = new RecordingListener();
+        feed.subscribe(null, first);
+        for (long id = 1; id <= 5; id++) {
+            change(Material.class, id, ChangeType.UPDATED);
+            feed.flush();
+        }
+
+        RecordingListener resumed = new RecordingListener();
+        feed.subscribe(first.lastEventId - 4, resumed);
+
+        assertThat(resumed.received).containsExactly("resync " + first.lastEventId);
+    }
+
+    @Test
+    void resyncsSubscribersThatFallBehind() {
+        List<Runnable> deliveries = new ArrayList<>();
+        feed = new MaterialChangeFeed(properties, deliveries::add);
+        RecordingListener slow = new RecordingListener();
+        feed.subscribe(null, slow);
+        for (long id = 1; id <= 3; id++) {
+            change(Material.class, id, ChangeType.UPDATED);
+        }
+        feed.flush();
+        change(Material.class, 4L, ChangeType.UPDATED);
+        feed.flush();
+
+        deliveries.forEach(Runnable::run);
+
+        assertThat(slow.received).hasSize(2);
+        assertThat(slow.received.get(0)).startsWith("resync ");
+        assertThat(slow.received.get(1)).isEqualTo("material 4 UPDATED");
+    }
+
+    @Test
+    void cancelsSubscriptionsThatFail() {
+        feed.subscribe(
+            null,
+            new RecordingListener() {
+                @Override
+                public void onChange(MaterialChangeFeed.Change change) throws IOException {
+                    throw new IOException("Broken pipe");
+                }
+            }
+        );
+        change(Material.class, 1L, ChangeType.UPDATED);
+        feed.flush();
+
+        assertThat(feed.getSubscriberCount()).isZero();
+    }
+
+    private void change(Class<?> entityType, Long id, ChangeType changeType) {
+        feed.onEntityChanged(new EntityChangedEvent(entityType, id, changeType));
+    }
+
+    private static class RecordingListener implements MaterialChangeFeed.Listener {
+
+        final List<String> received = new ArrayList<>();
+
+        long lastEventId;
+
+        @Override
+        public void onChange(MaterialChangeFeed.Change change) throws IOException {
+            received.add(change.entity() + " " + change.id() + " " + change.changeType());
+            lastEventId = change.eventId();
+        }
+
+        @Override
+        public void onResync(long eventId) throws IOException {
+            received.add("resync " + eventId);
+            lastEventId = eventId;
+        }
+
+        @Override
+        public void onHeartbeat() {
+            received.add("heartbeat");
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package matchless.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import matchless.config.ApplicationProperties;
+import matchless.domain.Material;
+import matchless.domain.MaterialMethod;
+import matchless.service.event.EntityChangedEvent;
+import matchless.service.event.EntityChangedEvent.ChangeType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Unit tests for the {@link ResponseCacheFilter} class.
+ */
+class ResponseCacheFilterTest {
+
+    private static final String BODY = "{\"id\":1,\"name\":\"one\"}";
+
+    private static final String PAGE = "[{\"id\":1,\"name\":\"one\"},{\"id\":2,\"name\":\"two\"}]";
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ResponseCacheFilter filter;
+
+    private AtomicInteger executions;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ResponseCacheFilter(new ApplicationProperties(), new ObjectMapper(), meterRegistry);
+        executions = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void servesRepeatedReadsFromTheCache() throws Exception {
+        FilterChain chain = chain(new CountDownLatch(0));
+
+        assertThat(get("/api/materials/1", chain).getContentAsString()).isEqualTo(BODY);
+        assertThat(get("/api/materials/1", chain).getContentAsString()).isEqualTo(BODY);
+
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void coalescesConcurrentIdenticalReads() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain chain = chain(release);
+
+        Future<MockHttpServletResponse> first = executor.submit(() -> get("/api/materials/1", chain));
+        Future<MockHttpServletResponse> second = executor.submit(() -> get("/api/materials/1", chain));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getContentAsString()).isEqualTo(BODY);
+        assertThat(second.get(5, TimeUnit.SECONDS).getContentAsString()).isEqualTo(BODY);
+        assertThat(executions).hasValue(1);
+        assertThat(meterRegistry.get("response.cache.loads").tag("coalesced", "false").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void readsAgainAfterAWrite() throws Exception {
+        FilterChain chain = chain(new CountDownLatch(0));
+        get("/api/materials/1", chain);
+
+        filter.onEntityChanged(new EntityChangedEvent(Material.class, 1L, ChangeType.UPDATED));
+        get("/api/materials/1", chain);
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void keepsIdSortedPagesOnUpdatesToOtherEntities() throws Exception {
+        FilterChain chain = chain(new CountDownLatch(0), PAGE);
+        getPage("id,asc", chain);
+
+        filter.onEntityChanged(new EntityChangedEvent(Material.class, 3L, ChangeType.UPDATED));
+        getPage("id,asc", chain);
+
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void evictsIdSortedPagesOnUpdatesToTheirEntities() throws Exception {
+        FilterChain chain = chain(new CountDownLatch(0), PAGE);
+        getPage("id,asc", chain);
+
+        filter.onEntityChanged(new EntityChangedEvent(Material.class, 2L, ChangeType.UPDATED));
+        getPage("id,asc", chain);
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void evictsIdSortedPagesOnCreates() throws Exception {
+        FilterChain chain = chain(new CountDownLatch(0), PAGE);
+        getPage("id,asc", chain);
+
+        filter.onEntityChanged(new EntityChangedEvent(Material.class, 3L, ChangeType.CREATED));
+        getPage("id,asc", chain);
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void evictsPagesSortedByOtherPropertiesOnAnyUpdate() throws Exception {
+        FilterChain chain = chain(new CountDownLatch(0), PAGE);
+        getPage("name,asc", chain);
+        getPage(null, chain);
+
+        // The update may move entity 3 onto these pages
+        filter.onEntityChanged(new EntityChangedEvent(Material.class, 3L, ChangeType.UPDATED));
+        getPage("name,asc", chain);
+        getPage(null, chain);
+
+        assertThat(executions).hasValue(4);
+    }
+
+    @Test
+    void keepsEntriesOfOtherTypes() throws Exception {
+        FilterChain chain = chain(new CountDownLatch(0));
+        get("/api/materials/1", chain);
+
+        filter.onEntityChanged(new EntityChangedEvent(MaterialMethod.class, 1L, ChangeType.UPDATED));
+        get("/api/materials/1", chain);
+
+        assertThat(executions).hasValue(1);
+    }
+
+    private MockHttpServletResponse get(String uri, FilterChain chain) throws Exception {
+        return get(new MockHttpServletRequest("GET", uri), chain);
+    }
+
+    private MockHttpServletResponse getPage(String sort, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/materials");
+        if (sort != null) {
+            request.setParameter("sort", sort);
+        }
+        return get(request, chain);
+    }
+
+    private MockHttpServletResponse get(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private FilterChain chain(CountDownLatch release) {
+        return chain(release, BODY);
+    }
+
+    private FilterChain chain(CountDownLatch release, String body) {
+        return (request, response) -> {
+            executions.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            response.setContentType("application/json");
+            response.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package matchless.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.servlet.FilterChain;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Unit tests for the {@link SpaWebFilter} class.
+ */
+class SpaWebFilterTest {
+
+    private static final String INDEX = "<!doctype html><html><body><jhi-main></jhi-main></body></html>";
+
+    private final SpaWebFilter filter = new SpaWebFilter(new ByteArrayResource(INDEX.getBytes(StandardCharsets.UTF_8)));
+
+    @Test
+    void routesClientPathsOnly() {
+        assertThat(SpaWebFilter.isClientRoute("/", 0)).isTrue();
+        assertThat(SpaWebFilter.isClientRoute("/material/1/edit", 0)).isTrue();
+        assertThat(SpaWebFilter.isClientRoute("/app/material", 4)).isTrue();
+        assertThat(SpaWebFilter.isClientRoute("/api/materials", 0)).isFalse();
+        assertThat(SpaWebFilter.isClientRoute("/apidocs", 0)).isFalse();
+        assertThat(SpaWebFilter.isClientRoute("/management/health", 0)).isFalse();
+        assertThat(SpaWebFilter.isClientRoute("/v3/api-docs", 0)).isFalse();
+        assertThat(SpaWebFilter.isClientRoute("/main.js", 0)).isFalse();
+        assertThat(SpaWebFilter.isClientRoute("/app", 4)).isFalse();
+    }
+
+    @Test
+    void servesTheIndexFromMemory() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/material"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(INDEX);
+        assertThat(response.getForwardedUrl()).isNull();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotBlank();
+    }
+
+    @Test
+    void answersNotModifiedToAMatchingETag() throws Exception {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/material"), first, new MockFilterChain());
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/material");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, first.getHeader(HttpHeaders.ETAG));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void passesServerPathsThrough() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/materials"), response, chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+}
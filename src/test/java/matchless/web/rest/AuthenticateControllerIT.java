@@ -9,10 +9,12 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.jayway.jsonpath.JsonPath;
 import matchless.IntegrationTest;
 import matchless.domain.User;
 import matchless.repository.UserRepository;
 import matchless.web.rest.vm.LoginVM;
+import matchless.web.rest.vm.RefreshTokenVM;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -95,4 +97,117 @@ class AuthenticateControllerIT {
             .andExpect(jsonPath("$.id_token").doesNotExist())
             .andExpect(header().doesNotExist("Authorization"));
     }
+
+    @Test
+    @Transactional
+    void testRefresh() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-refresh");
+        user.setEmail("user-jwt-controller-refresh@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+
+        userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-refresh");
+        login.setPassword("test");
+        String response = mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.refresh_token").isNotEmpty())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        RefreshTokenVM refresh = new RefreshTokenVM();
+        refresh.setRefreshToken(JsonPath.read(response, "$.refresh_token"));
+        mockMvc
+            .perform(
+                post("/api/authenticate/refresh")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(refresh))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id_token").isNotEmpty())
+            .andExpect(jsonPath("$.refresh_token").isNotEmpty())
+            .andExpect(jsonPath("$.refresh_token").value(not(is(refresh.getRefreshToken()))))
+            .andExpect(header().string("Authorization", not(nullValue())));
+
+        // A refresh token can only be used once
+        mockMvc
+            .perform(
+                post("/api/authenticate/refresh")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(refresh))
+            )
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.id_token").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    void testRefreshTokenReuseRevokesItsFamily() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-reuse");
+        user.setEmail("user-jwt-controller-reuse@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+
+        userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-reuse");
+        login.setPassword("test");
+        String response = mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        RefreshTokenVM stolen = new RefreshTokenVM();
+        stolen.setRefreshToken(JsonPath.read(response, "$.refresh_token"));
+
+        response =
+            mockMvc
+                .perform(
+                    post("/api/authenticate/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtil.convertObjectToJsonBytes(stolen))
+                )
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        RefreshTokenVM rotated = new RefreshTokenVM();
+        rotated.setRefreshToken(JsonPath.read(response, "$.refresh_token"));
+
+        // Presenting the rotated token again revokes the token it was rotated into
+        mockMvc
+            .perform(
+                post("/api/authenticate/refresh").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(stolen))
+            )
+            .andExpect(status().isUnauthorized());
+        mockMvc
+            .perform(
+                post("/api/authenticate/refresh")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(rotated))
+            )
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testRefreshFails() throws Exception {
+        RefreshTokenVM refresh = new RefreshTokenVM();
+        refresh.setRefreshToken("unknown-refresh-token");
+        mockMvc
+            .perform(
+                post("/api/authenticate/refresh")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(refresh))
+            )
+            .andExpect(status().isUnauthorized())
+            .andExpect(header().doesNotExist("Authorization"));
+    }
 }
@@ -0,0 +1,69 @@
+package matchless.web.rest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import matchless.IntegrationTest;
+import matchless.domain.User;
+import matchless.repository.UserRepository;
+import matchless.web.rest.vm.LoginVM;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link LogoutResource} REST controller.
+ */
+@AutoConfigureMockMvc
+@IntegrationTest
+class LogoutResourceIT {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @Transactional
+    void testLogoutRevokesTheToken() throws Exception {
+        User user = new User();
+        user.setLogin("user-logout");
+        user.setEmail("user-logout@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+        userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-logout");
+        login.setPassword("test");
+        String response = mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        String authorization = "Bearer " + JsonPath.read(response, "$.id_token");
+
+        mockMvc.perform(get("/api/authenticate").header(HttpHeaders.AUTHORIZATION, authorization)).andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/logout").header(HttpHeaders.AUTHORIZATION, authorization)).andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/authenticate").header(HttpHeaders.AUTHORIZATION, authorization)).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testLogoutRequiresAuthentication() throws Exception {
+        mockMvc.perform(post("/api/logout")).andExpect(status().isUnauthorized());
+    }
+}
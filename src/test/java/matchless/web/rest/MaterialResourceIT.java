@@ -5,8 +5,12 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import jakarta.persistence.EntityManager;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import matchless.IntegrationTest;
@@ -35,6 +39,8 @@ class MaterialResourceIT {
     private static final String DEFAULT_DESCRIPTION = "AAAAAAAAAA";
     private static final String UPDATED_DESCRIPTION = "BBBBBBBBBB";
 
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
     private static final String ENTITY_API_URL = "/api/materials";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
 
@@ -147,6 +153,40 @@ class MaterialResourceIT {
             .andExpect(jsonPath("$.[*].description").value(hasItem(DEFAULT_DESCRIPTION)));
     }
 
+    @Test
+    @Transactional
+    void getMaterialsByIds() throws Exception {
+        // Initialize the database
+        materialRepository.saveAndFlush(material);
+        Material other = materialRepository.saveAndFlush(createUpdatedEntity(em));
+
+        // Get both materials, and a missing one, in one request
+        restMaterialMockMvc
+            .perform(get(ENTITY_API_URL + "?ids={ids}", other.getId() + "," + Long.MAX_VALUE + "," + material.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$.[0].id").value(other.getId().intValue()))
+            .andExpect(jsonPath("$.[0].name").value(UPDATED_NAME))
+            .andExpect(jsonPath("$.[1].id").value(material.getId().intValue()))
+            .andExpect(jsonPath("$.[1].name").value(DEFAULT_NAME));
+    }
+
+    @Test
+    @Transactional
+    void getAllMaterialsWithFields() throws Exception {
+        // Initialize the database
+        materialRepository.saveAndFlush(material);
+
+        // Get only the ids and names of the materials
+        restMaterialMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&fields=name"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(material.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
+            .andExpect(jsonPath("$.[*].description").isEmpty())
+            .andExpect(jsonPath("$.[*].methods").isEmpty());
+    }
+
     @Test
     @Transactional
     void getMaterial() throws Exception {
@@ -163,6 +203,50 @@ class MaterialResourceIT {
             .andExpect(jsonPath("$.description").value(DEFAULT_DESCRIPTION));
     }
 
+    @Test
+    @Transactional
+    void createMaterialAsSmile() throws Exception {
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+        // Create the Material from a Smile body, and read it back as Smile
+        byte[] response = restMaterialMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .contentType(SMILE)
+                    .accept(SMILE)
+                    .content(smileMapper.writeValueAsBytes(Map.of("name", DEFAULT_NAME, "description", DEFAULT_DESCRIPTION)))
+            )
+            .andExpect(status().isCreated())
+            .andExpect(content().contentType(SMILE))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        Material created = smileMapper.readValue(response, Material.class);
+        assertThat(materialRepository.findById(created.getId())).map(Material::getName).contains(DEFAULT_NAME);
+    }
+
+    @Test
+    @Transactional
+    void getMaterialAsCbor() throws Exception {
+        // Initialize the database
+        materialRepository.saveAndFlush(material);
+
+        // Get the material as CBOR
+        byte[] response = restMaterialMockMvc
+            .perform(get(ENTITY_API_URL_ID, material.getId()).accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        Material read = new ObjectMapper(new CBORFactory()).readValue(response, Material.class);
+        assertThat(read.getId()).isEqualTo(material.getId());
+        assertThat(read.getName()).isEqualTo(DEFAULT_NAME);
+        assertThat(read.getDescription()).isEqualTo(DEFAULT_DESCRIPTION);
+    }
+
     @Test
     @Transactional
     void getNonExistingMaterial() throws Exception {
@@ -0,0 +1,86 @@
+package matchless.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import matchless.IntegrationTest;
+import matchless.domain.Material;
+import matchless.domain.MaterialMethod;
+import matchless.domain.enumeration.MethodType;
+import matchless.repository.MaterialMethodRepository;
+import matchless.repository.MaterialRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Integration tests for the {@link MaterialStreamResource} REST controller.
+ * <p>
+ * The test data is committed, as the R2DBC connections cannot see the uncommitted data of a JPA test transaction.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class MaterialStreamResourceIT {
+
+    @Autowired
+    private MaterialRepository materialRepository;
+
+    @Autowired
+    private MaterialMethodRepository materialMethodRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Material material;
+
+    private MaterialMethod materialMethod;
+
+    @BeforeEach
+    public void initTest() {
+        material = materialRepository.saveAndFlush(new Material().name("streamed material").description("streamed description"));
+        materialMethod = materialMethodRepository.saveAndFlush(new MaterialMethod().type(MethodType.MAKE).name(material));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        materialMethodRepository.deleteById(materialMethod.getId());
+        materialRepository.deleteById(material.getId());
+    }
+
+    @Test
+    void streamAllMaterials() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/reactive/materials")).andExpect(request().asyncStarted()).andReturn();
+        result.getAsyncResult();
+
+        MockHttpServletResponse response = result.getResponse();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentType()).startsWith(MediaType.APPLICATION_NDJSON_VALUE);
+        assertThat(response.getContentAsString().lines())
+            .anyMatch(line -> line.contains("\"id\":" + material.getId() + ",") && line.contains("\"name\":\"streamed material\""));
+    }
+
+    @Test
+    void streamAllMaterialMethods() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/reactive/material-methods")).andExpect(request().asyncStarted()).andReturn();
+        result.getAsyncResult();
+
+        MockHttpServletResponse response = result.getResponse();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString().lines())
+            .anyMatch(
+                line ->
+                    line.contains("\"id\":" + materialMethod.getId() + ",") &&
+                    line.contains("\"type\":\"MAKE\"") &&
+                    line.contains("\"name\":{\"id\":" + material.getId() + "}")
+            );
+    }
+}
@@ -0,0 +1,87 @@
+package matchless.web.rest;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import matchless.IntegrationTest;
+import matchless.domain.Material;
+import matchless.service.MaterialService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link MaterialSyncResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class MaterialSyncResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/materials/changes";
+
+    @Autowired
+    private MaterialService materialService;
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private MockMvc restMaterialSyncMockMvc;
+
+    @Test
+    @Transactional
+    void getChangesSinceToken() throws Exception {
+        String token = getToken();
+
+        Material kept = materialService.save(new Material().name("kept").description("created"));
+        Material deleted = materialService.save(new Material().name("deleted"));
+        kept.setDescription("updated");
+        materialService.update(kept);
+        materialService.delete(deleted.getId());
+
+        String next = om
+            .readTree(
+                restMaterialSyncMockMvc
+                    .perform(get(ENTITY_API_URL).param("since", token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.hasMore").value(false))
+                    .andExpect(jsonPath("$.materials[*].id").value(contains(kept.getId().intValue())))
+                    .andExpect(jsonPath("$.materials[0].description").value("updated"))
+                    .andExpect(jsonPath("$.deletedMaterialIds").value(contains(deleted.getId().intValue())))
+                    .andExpect(jsonPath("$.materialMethods").value(empty()))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString()
+            )
+            .get("token")
+            .asText();
+
+        restMaterialSyncMockMvc
+            .perform(get(ENTITY_API_URL).param("since", next))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.token").value(next))
+            .andExpect(jsonPath("$.materials").value(empty()))
+            .andExpect(jsonPath("$.deletedMaterialIds").value(empty()));
+        restMaterialSyncMockMvc.perform(get(ENTITY_API_URL)).andExpect(status().isOk()).andExpect(jsonPath("$.token").value(next));
+    }
+
+    @Test
+    void getChangesWithInvalidToken() throws Exception {
+        restMaterialSyncMockMvc.perform(get(ENTITY_API_URL).param("since", "not-a-token")).andExpect(status().isBadRequest());
+    }
+
+    private String getToken() throws Exception {
+        JsonNode changes = om.readTree(
+            restMaterialSyncMockMvc.perform(get(ENTITY_API_URL)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString()
+        );
+        return changes.get("token").asText();
+    }
+}
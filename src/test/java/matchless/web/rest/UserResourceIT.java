@@ -245,6 +245,22 @@ class UserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").value(hasItem(DEFAULT_LANGKEY)));
     }
 
+    @Test
+    @Transactional
+    void getAllUsersWithFields() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+
+        // Get only the ids and logins of the users
+        restUserMockMvc
+            .perform(get("/api/admin/users?sort=id,desc&fields=login").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(user.getId().intValue())))
+            .andExpect(jsonPath("$.[*].login").value(hasItem(DEFAULT_LOGIN)))
+            .andExpect(jsonPath("$.[*].email").isEmpty())
+            .andExpect(jsonPath("$.[*].authorities").isEmpty());
+    }
+
     @Test
     @Transactional
     void getUser() throws Exception {
@@ -0,0 +1,84 @@
+package matchless.web.websocket;
+
+import static matchless.config.WebsocketConfiguration.IP_ADDRESS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import matchless.web.websocket.dto.ActivityDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.simp.user.SimpSubscription;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+
+/**
+ * Unit tests for the {@link ActivityService} class.
+ */
+class ActivityServiceTest {
+
+    private SimpMessageSendingOperations messagingTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ActivityService activityService;
+
+    @BeforeEach
+    public void setup() {
+        messagingTemplate = mock(SimpMessageSendingOperations.class);
+        SimpUserRegistry simpUserRegistry = mock(SimpUserRegistry.class);
+        when(simpUserRegistry.findSubscriptions(any())).thenReturn(Set.of(mock(SimpSubscription.class), mock(SimpSubscription.class)));
+        meterRegistry = new SimpleMeterRegistry();
+        activityService = new ActivityService(messagingTemplate, simpUserRegistry, meterRegistry);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishesTheLatestActivityOfEachSessionOncePerWindow() {
+        activityService.sendActivity(activity("/materials"), session("one"), () -> "user");
+        activityService.sendActivity(activity("/materials/1/view"), session("one"), () -> "user");
+        activityService.sendActivity(activity("/admin/tracker"), session("two"), () -> "admin");
+
+        activityService.publish();
+        activityService.publish();
+
+        ArgumentCaptor<List<ActivityDTO>> frame = ArgumentCaptor.forClass(List.class);
+        verify(messagingTemplate).convertAndSend(eq(ActivityService.TRACKER_DESTINATION), frame.capture());
+        assertThat(frame.getValue())
+            .extracting(ActivityDTO::getSessionId, ActivityDTO::getPage)
+            .containsExactlyInAnyOrder(tuple("one", "/materials/1/view"), tuple("two", "/admin/tracker"));
+        assertThat(meterRegistry.get("tracker.activities").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("tracker.frames").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("tracker.messages.saved").counter().count()).isEqualTo(4);
+    }
+
+    @Test
+    void publishesNothingWithoutActivity() {
+        activityService.publish();
+
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    private static ActivityDTO activity(String page) {
+        ActivityDTO activityDTO = new ActivityDTO();
+        activityDTO.setPage(page);
+        return activityDTO;
+    }
+
+    private static StompHeaderAccessor session(String sessionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SEND);
+        accessor.setSessionId(sessionId);
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(IP_ADDRESS, "127.0.0.1");
+        accessor.setSessionAttributes(attributes);
+        return accessor;
+    }
+}
@@ -0,0 +1,95 @@
+package matchless.web.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+
+/**
+ * Unit tests for the {@link DestinationShardedExecutor} class.
+ */
+class DestinationShardedExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private DestinationShardedExecutor executor;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new DestinationShardedExecutor(4, "test-shard-", meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void runsTheMessagesOfADestinationInOrderOnOneShard() throws Exception {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(100);
+        for (int i = 0; i < 100; i++) {
+            int index = i;
+            executor.execute(
+                task("/topic/tracker", () -> {
+                    threads.add(Thread.currentThread().getName());
+                    order.add(index);
+                    done.countDown();
+                })
+            );
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(threads).containsOnly(threads.get(0));
+        assertThat(order).isSorted();
+    }
+
+    @Test
+    void spreadsDestinationsAcrossShards() {
+        long shardsUsed = IntStream
+            .range(0, 100)
+            .mapToObj(i -> executor.shardOf(task("/topic/destination-" + i, () -> {})))
+            .distinct()
+            .count();
+
+        assertThat(shardsUsed).isEqualTo(4);
+        assertThat(meterRegistry.find(DestinationShardedExecutor.QUEUE_METER_NAME).gauges()).hasSize(4);
+    }
+
+    private static MessageHandlingRunnable task(String destination, Runnable body) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        return new MessageHandlingRunnable() {
+            @Override
+            public Message<?> getMessage() {
+                return message;
+            }
+
+            @Override
+            public MessageHandler getMessageHandler() {
+                return m -> {};
+            }
+
+            @Override
+            public void run() {
+                body.run();
+            }
+        };
+    }
+}
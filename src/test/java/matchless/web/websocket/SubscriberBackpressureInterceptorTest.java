@@ -0,0 +1,120 @@
+package matchless.web.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import matchless.config.ApplicationProperties;
+import matchless.config.ApplicationProperties.StompBroker.OverflowPolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+/**
+ * Unit tests for the {@link SubscriberBackpressureInterceptor} class.
+ */
+class SubscriberBackpressureInterceptorTest {
+
+    private static final String SESSION_ID = "session";
+
+    private ApplicationProperties applicationProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private MessageChannel channel;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getStompBroker().setSubscriberQueueCapacity(2);
+        meterRegistry = new SimpleMeterRegistry();
+        channel = mock(MessageChannel.class);
+    }
+
+    @Test
+    void dropsMessagesBeyondTheCapacity() throws Exception {
+        SubscriberBackpressureInterceptor interceptor = new SubscriberBackpressureInterceptor(applicationProperties, meterRegistry);
+        connect(interceptor);
+        Message<?> message = message(SimpMessageType.MESSAGE);
+
+        assertThat(interceptor.preSend(message, channel)).isSameAs(message);
+        assertThat(interceptor.preSend(message, channel)).isSameAs(message);
+        assertThat(interceptor.preSend(message, channel)).isNull();
+        assertThat(meterRegistry.get("stomp.subscriber.queue.max").gauge().value()).isEqualTo(2);
+
+        interceptor.afterMessageHandled(message, channel, mock(MessageHandler.class), null);
+
+        assertThat(interceptor.preSend(message, channel)).isSameAs(message);
+        assertThat(meterRegistry.get("stomp.subscriber.queue.overflows").tag("policy", "drop").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void alwaysSendsRepliesToTheClient() throws Exception {
+        SubscriberBackpressureInterceptor interceptor = new SubscriberBackpressureInterceptor(applicationProperties, meterRegistry);
+        connect(interceptor);
+        Message<?> connected = message(SimpMessageType.CONNECT_ACK);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(interceptor.preSend(connected, channel)).isSameAs(connected);
+        }
+    }
+
+    @Test
+    void disconnectsSubscribersBeyondTheCapacity() throws Exception {
+        applicationProperties.getStompBroker().setOverflowPolicy(OverflowPolicy.DISCONNECT);
+        SubscriberBackpressureInterceptor interceptor = new SubscriberBackpressureInterceptor(applicationProperties, meterRegistry);
+        WebSocketSession session = connect(interceptor);
+        Message<?> message = message(SimpMessageType.MESSAGE);
+
+        interceptor.preSend(message, channel);
+        interceptor.preSend(message, channel);
+        verify(session, never()).close(any());
+
+        assertThat(interceptor.preSend(message, channel)).isNull();
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    @Test
+    void stopsCountingTheMessagesOfClosedSessions() throws Exception {
+        SubscriberBackpressureInterceptor interceptor = new SubscriberBackpressureInterceptor(applicationProperties, meterRegistry);
+        WebSocketHandler handler = interceptor.decorate(mock(WebSocketHandler.class));
+        WebSocketSession session = connect(handler);
+        Message<?> message = message(SimpMessageType.MESSAGE);
+        interceptor.preSend(message, channel);
+
+        handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(interceptor.preSend(message, channel)).isSameAs(message);
+        }
+        assertThat(meterRegistry.get("stomp.subscriber.queue.max").gauge().value()).isZero();
+        assertThat(meterRegistry.get("stomp.subscriber.queue.overflows").counter().count()).isZero();
+    }
+
+    private static WebSocketSession connect(SubscriberBackpressureInterceptor interceptor) throws Exception {
+        return connect(interceptor.decorate(mock(WebSocketHandler.class)));
+    }
+
+    private static WebSocketSession connect(WebSocketHandler handler) throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(SESSION_ID);
+        when(session.isOpen()).thenReturn(true);
+        handler.afterConnectionEstablished(session);
+        return session;
+    }
+
+    private static Message<?> message(SimpMessageType messageType) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(messageType);
+        accessor.setSessionId(SESSION_ID);
+        accessor.setDestination("/topic/tracker");
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,57 @@
+const zlib = require('zlib');
+const { promisify } = require('util');
+
+const gzip = promisify(zlib.gzip);
+const brotliCompress = promisify(zlib.brotliCompress);
+
+/**
+ * Writes `.gz` and `.br` variants next to the compressible assets of the build, so that the server can send them
+ * as they are instead of compressing each response on the fly.
+ * Variants which do not save at least 10% of the asset are not written.
+ */
+module.exports = class PrecompressPlugin {
+  constructor({ test = /\.(js|css|html|svg|json|txt|map)$/, minSize = 1024 } = {}) {
+    this.test = test;
+    this.minSize = minSize;
+  }
+
+  apply(compiler) {
+    const { Compilation, sources } = compiler.webpack;
+    compiler.hooks.thisCompilation.tap('PrecompressPlugin', compilation => {
+      compilation.hooks.processAssets.tapPromise(
+        { name: 'PrecompressPlugin', stage: Compilation.PROCESS_ASSETS_STAGE_OPTIMIZE_TRANSFER },
+        async assets => {
+          const compressions = Object.keys(assets)
+            .filter(name => this.test.test(name))
+            .flatMap(name => {
+              const content = compilation.getAsset(name).source.buffer();
+              if (content.length < this.minSize) {
+                return [];
+              }
+              return [
+                this.compress(compilation, sources, name, content, '.gz', () =>
+                  gzip(content, { level: zlib.constants.Z_BEST_COMPRESSION }),
+                ),
+                this.compress(compilation, sources, name, content, '.br', () =>
+                  brotliCompress(content, {
+                    params: {
+                      [zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY,
+                      [zlib.constants.BROTLI_PARAM_SIZE_HINT]: content.length,
+                    },
+                  }),
+                ),
+              ];
+            });
+          await Promise.all(compressions);
+        },
+      );
+    });
+  }
+
+  async compress(compilation, sources, name, content, extension, compress) {
+    const compressed = await compress();
+    if (compressed.length < content.length * 0.9) {
+      compilation.emitAsset(name + extension, new sources.RawSource(compressed), { compressed: true });
+    }
+  }
+};
@@ -8,6 +8,7 @@ const CopyWebpackPlugin = require('copy-webpack-plugin');
 const ESLintPlugin = require('eslint-webpack-plugin');
 
 const environment = require('./environment');
+const PrecompressPlugin = require('./precompress.plugin');
 const proxyConfig = require('./proxy.conf');
 
 module.exports = async (config, options, targetOptions) => {
@@ -77,6 +78,8 @@ module.exports = async (config, options, targetOptions) => {
         // Webpack statistics in temporary folder
         reportFilename: '../../../stats.html',
       }),
+      // Brotli and gzip variants of the assets, served by the resource chain of StaticResourcesWebConfiguration
+      new PrecompressPlugin(),
     );
   }
 